@@ -0,0 +1,38 @@
+#!/bin/bash
+
+# Benchmarks JMH do Model (Board, Piece, BitGrid e partida completa).
+# Requer em lib/: jmh-core, jmh-generator-annprocess, jopt-simple e commons-math3.
+# Argumentos extras são repassados ao JMH (ex: ./bench.sh ModelBenchmark -f 2).
+# Depois de compilado, o perft da geração de encaixes roda sem o JMH:
+#   java -cp bin:bench-bin com.tetris.bench.Perft 5 --check   (ou --suite para os valores de regressão)
+
+JMH_CP="lib/jmh-core-1.37.jar:lib/jmh-generator-annprocess-1.37.jar:lib/jopt-simple-5.0.4.jar:lib/commons-math3-3.6.1.jar"
+
+# 1. Compila o jogo (pasta bin/)
+echo "Compilando código-fonte do jogo..."
+rm -rf bin
+mkdir bin
+javac -encoding UTF-8 -d bin -cp src $(find src -name "*.java")
+if [ $? -ne 0 ]; then
+    echo "ERRO: Falha na compilação do jogo."
+    exit 1
+fi
+
+# 2. Compila os benchmarks com o processador de anotações do JMH (pasta bench-bin/)
+echo "Compilando benchmarks..."
+rm -rf bench-bin
+mkdir bench-bin
+javac -encoding UTF-8 -d bench-bin -cp "bin:$JMH_CP" -processorpath "$JMH_CP" $(find bench -name "*.java")
+if [ $? -ne 0 ]; then
+    echo "ERRO: Falha na compilação dos benchmarks."
+    exit 1
+fi
+
+# 3. Executa com o profiler de GC (taxa de alocação) e guarda o resultado por commit,
+#    para comparar com o baseline de versões anteriores em bench/results/
+mkdir -p bench/results
+RESULT="bench/results/$(git rev-parse --short HEAD 2>/dev/null || date +%Y%m%d%H%M%S).json"
+echo "----------------------------------------"
+echo "Executando benchmarks (resultado em $RESULT)..."
+echo "----------------------------------------"
+java -cp "bin:bench-bin:$JMH_CP" org.openjdk.jmh.Main -prof gc -rf json -rff "$RESULT" "$@" | tee bench_output.txt
@@ -0,0 +1,43 @@
+package com.tetris.bench;
+
+import com.tetris.engine.GameEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de uma partida completa roteirizada no motor headless,
+ * do início ao game over, sempre com a mesma semente.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+
+    private static final long SEED = 2024L;
+    private static final int MAX_PIECES = 10_000;
+
+    private GameEngine engine;
+
+    @Setup
+    public void setUp() {
+        engine = new GameEngine(SEED);
+    }
+
+    @Benchmark
+    public int scriptedGame() {
+        return ScriptedGame.play(engine, SEED, MAX_PIECES);
+    }
+}
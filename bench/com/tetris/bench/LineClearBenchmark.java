@@ -0,0 +1,94 @@
+package com.tetris.bench;
+
+import com.tetris.model.BitGrid;
+import com.tetris.model.Board;
+import com.tetris.model.Shape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da remoção de linhas completas (Board.removeFullLines).
+ * Compara a grelha em bitboard com a implementação original, que varria
+ * um array de Tetrominoe célula por célula e copiava as linhas uma a uma.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LineClearBenchmark {
+
+    private static final int W = Board.BOARD_WIDTH;
+    private static final int H = Board.BOARD_HEIGHT;
+
+    // Número de linhas completas na pilha de teste (0 mede só a varredura)
+    @Param({"0", "1", "4"})
+    public int fullLines;
+
+    private final BitGrid template = new BitGrid();
+    private final BitGrid grid = new BitGrid();
+    private final Shape.Tetrominoe[] legacyTemplate = new Shape.Tetrominoe[W * H];
+    private final Shape.Tetrominoe[] legacyGrid = new Shape.Tetrominoe[W * H];
+
+    @Setup
+    public void setUp() {
+        // Pilha de 12 linhas: as linhas completas ficam espalhadas e as demais têm um buraco
+        for (int y = 0; y < H; y++) {
+            for (int x = 0; x < W; x++) {
+                boolean full = y % 3 == 0 && y / 3 < fullLines;
+                boolean filled = y < 12 && (full || x != (y * 7) % W);
+                Shape.Tetrominoe shape = filled ? Shape.Tetrominoe.values()[1 + (x + y) % 7] : Shape.Tetrominoe.NoShape;
+                template.set(x, y, shape);
+                legacyTemplate[y * W + x] = shape;
+            }
+        }
+    }
+
+    @Benchmark
+    public int bitGrid() {
+        grid.copyFrom(template);
+        return grid.clearFullRows();
+    }
+
+    @Benchmark
+    public int legacyArray() {
+        System.arraycopy(legacyTemplate, 0, legacyGrid, 0, W * H);
+        return legacyRemoveFullLines(legacyGrid);
+    }
+
+    // Cópia fiel do laço original de Board.removeFullLines (antes do BitGrid)
+    private static int legacyRemoveFullLines(Shape.Tetrominoe[] boardGrid) {
+        int numFullLines = 0;
+        for (int i = H - 1; i >= 0; i--) {
+            boolean lineIsFull = true;
+            for (int j = 0; j < W; j++) {
+                if (boardGrid[i * W + j] == Shape.Tetrominoe.NoShape) {
+                    lineIsFull = false;
+                    break;
+                }
+            }
+
+            if (lineIsFull) {
+                numFullLines++;
+                for (int k = i; k < H - 1; k++) {
+                    for (int j = 0; j < W; j++) {
+                        boardGrid[k * W + j] = boardGrid[(k + 1) * W + j];
+                    }
+                }
+            }
+        }
+        return numFullLines;
+    }
+}
@@ -0,0 +1,110 @@
+package com.tetris.bench;
+
+import com.tetris.engine.GameEngine;
+import com.tetris.model.Board;
+import com.tetris.model.Piece;
+import com.tetris.model.PlacementGenerator;
+import com.tetris.model.Shape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks das operações do Model chamadas a cada tecla e a cada repaint:
+ * movimento (tryMove), rotação, cálculo da peça fantasma e troca de forma da peça.
+ * Inclui a geração de todos os encaixes da peça atual ({@link PlacementGenerator}), base de dicas e bots.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelBenchmark {
+
+    private static final long SEED = 7L;
+    private static final Shape.Tetrominoe[] SHAPES = Shape.Tetrominoe.values();
+
+    private Board board;
+    private Piece piece;
+    private PlacementGenerator placements;
+    private int shapeIndex;
+
+    @Setup
+    public void setUp() {
+        // Pilha com algumas peças para que as colisões e a peça fantasma percorram linhas ocupadas
+        GameEngine engine = ScriptedGame.stacked(SEED, 12);
+        board = engine.getBoard();
+        piece = new Piece();
+        piece.setShape(Shape.Tetrominoe.TShape);
+        placements = new PlacementGenerator();
+    }
+
+    // Board.tryMove via moveLeft/moveRight: a peça volta à posição inicial a cada invocação
+    @Benchmark
+    public int tryMoveLeftRight() {
+        board.moveLeft();
+        board.moveRight();
+        return board.getCurrentPiece().getX();
+    }
+
+    @Benchmark
+    public int boardRotateRight() {
+        board.rotateRight();
+        return board.getCurrentPiece().getRotation();
+    }
+
+    @Benchmark
+    public int boardRotateLeft() {
+        board.rotateLeft();
+        return board.getCurrentPiece().getRotation();
+    }
+
+    @Benchmark
+    public int ghostPieceY() {
+        return board.getGhostPieceY();
+    }
+
+    // A peça muda de coluna antes de cada consulta, como acontece durante o jogo
+    @Benchmark
+    public int ghostPieceYAfterMove() {
+        board.moveLeft();
+        int y = board.getGhostPieceY();
+        board.moveRight();
+        return y + board.getGhostPieceY();
+    }
+
+    // Busca completa a partir da posição da peça atual sobre a pilha
+    @Benchmark
+    public int generatePlacements() {
+        return placements.generate(board);
+    }
+
+    @Benchmark
+    public int pieceRotateLeft() {
+        piece.rotateLeft();
+        return piece.x(3);
+    }
+
+    @Benchmark
+    public int pieceRotateRight() {
+        piece.rotateRight();
+        return piece.x(3);
+    }
+
+    @Benchmark
+    public int pieceSetShape() {
+        shapeIndex = shapeIndex == 7 ? 1 : shapeIndex + 1;
+        piece.setShape(SHAPES[shapeIndex]);
+        return piece.minY();
+    }
+}
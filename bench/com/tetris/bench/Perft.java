@@ -0,0 +1,285 @@
+package com.tetris.bench;
+
+import com.tetris.model.BitGrid;
+import com.tetris.model.Board;
+import com.tetris.model.PlacementGenerator;
+import com.tetris.model.Shape;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Perft para o Model, como nos motores de xadrez: a partir de uma grelha e de uma sequência de
+ * peças, conta todas as sequências de encaixes alcançáveis até a profundidade N e mede quantos
+ * encaixes por segundo são gerados. Cada peça surge onde o Board a coloca, se move com as mesmas
+ * regras de colisão ({@link PlacementGenerator}) e trava com as mesmas regras de remoção de linhas;
+ * se a peça seguinte não couber no surgimento, o ramo termina (game over) e não conta.
+ * Os números servem de oráculo de regressão para mudanças em tryMove e removeFullLines, e o
+ * tempo, de medida de desempenho da geração de movimentos.
+ * <p>
+ * A contagem normal divide os encaixes da primeira peça entre várias threads e, na última peça,
+ * só conta os encaixes gerados, sem travá-los. O modo de referência roda numa única thread e
+ * trava cada encaixe até o fim; {@code --check} roda os dois e compara.
+ * <p>
+ * Uso: {@code java com.tetris.bench.Perft profundidade [peças] [opções]}
+ * <ul>
+ *   <li>peças: letras I, O, T, S, Z, L e J, repetidas em ciclo (padrão TIOLJSZ)</li>
+ *   <li>{@code --board=linhas}: linhas da grelha separadas por '/', de cima para baixo, terminando
+ *       na linha do chão; '.' é vazio e qualquer outro caractere, ocupado (ex: {@code ##..######/#########.})</li>
+ *   <li>{@code --threads=N}: threads da contagem paralela (padrão: processadores disponíveis)</li>
+ *   <li>{@code --reference}: só o modo de referência</li>
+ *   <li>{@code --check}: contagem paralela e de referência, comparando as duas</li>
+ *   <li>{@code --suite}: confere as posições de {@link #SUITE} contra os valores esperados</li>
+ * </ul>
+ * Cada profundidade de 1 a N é contada e impressa separadamente; o código de saída é 1 se alguma
+ * comparação divergir.
+ */
+public final class Perft {
+
+    private static final String DEFAULT_PIECES = "TIOLJSZ";
+
+    /**
+     * Posições de regressão: {grelha, peças, profundidade, contagem esperada}.
+     * Se uma mudança nas regras de movimento ou de remoção de linhas alterar algum valor,
+     * a mudança de comportamento é intencional ou é um bug.
+     */
+    static final String[][] SUITE = {
+            {"", "TIOLJSZ", "4", "198763"},
+            {"", "IIII", "3", "5049"},
+            // Poço na última coluna: o I completa as três linhas
+            {"#########./#########./#########.", "ILZT", "3", "10143"},
+            // Saliências e buracos: encaixes por baixo (tucks) só com movimentos laterais
+            {"...#....../##.###.###/####.#####/#.########", "TSZJ", "3", "10577"},
+    };
+
+    private final Shape.Tetrominoe[] sequence;
+    private final BitGrid start;
+
+    public Perft(BitGrid start, Shape.Tetrominoe[] sequence) {
+        if (sequence.length == 0) {
+            throw new IllegalArgumentException("A sequência de peças está vazia");
+        }
+        this.start = start;
+        this.sequence = sequence;
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        if (args.length > 0 && args[0].equals("--suite")) {
+            System.exit(runSuite() ? 0 : 1);
+        }
+        if (args.length == 0) {
+            System.out.println("Uso: Perft profundidade [peças] [--board=linhas] [--threads=N] [--reference | --check | --suite]");
+            System.exit(2);
+        }
+        int depth = Integer.parseInt(args[0]);
+        String pieces = DEFAULT_PIECES;
+        String board = "";
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean reference = false;
+        boolean check = false;
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--board=")) {
+                board = arg.substring("--board=".length());
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.equals("--reference")) {
+                reference = true;
+            } else if (arg.equals("--check")) {
+                check = true;
+            } else if (arg.equals("--suite")) {
+                System.exit(runSuite() ? 0 : 1);
+            } else if (!arg.startsWith("--")) {
+                pieces = arg;
+            } else {
+                throw new IllegalArgumentException("Opção desconhecida: " + arg);
+            }
+        }
+
+        Perft perft = new Perft(parseGrid(board), parseSequence(pieces));
+        boolean ok = true;
+        for (int d = 1; d <= depth; d++) {
+            if (reference) {
+                perft.timed(d, 0);
+                continue;
+            }
+            long parallel = perft.timed(d, threads);
+            if (check) {
+                long single = perft.timed(d, 0);
+                if (single != parallel) {
+                    System.out.printf("  DIVERGÊNCIA na profundidade %d: paralelo %d, referência %d%n", d, parallel, single);
+                    ok = false;
+                }
+            }
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * Contagem paralela: os encaixes da primeira peça são distribuídos entre as threads.
+     */
+    public long countParallel(int depth, int threads) throws InterruptedException, ExecutionException {
+        if (depth <= 0) {
+            return 1;
+        }
+        PlacementGenerator root = new PlacementGenerator();
+        int count = spawn(root, start, 0);
+        if (depth == 1) {
+            return count;
+        }
+        ThreadLocal<Walker> walkers = ThreadLocal.withInitial(() -> new Walker(depth));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> IntStream.range(0, count).parallel().mapToLong(i -> {
+                Walker walker = walkers.get();
+                BitGrid child = walker.grids[1];
+                child.copyFrom(start);
+                root.place(i, child);
+                return walker.count(child, 1, depth - 1, true);
+            }).sum()).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Contagem de referência: uma thread, e cada encaixe é travado até a última peça.
+     */
+    public long countReference(int depth) {
+        BitGrid grid = new BitGrid();
+        grid.copyFrom(start);
+        return new Walker(depth).count(grid, 0, depth, false);
+    }
+
+    // Percorre a árvore em profundidade; cada nível tem a sua grelha e o seu gerador, reaproveitados
+    private final class Walker {
+        final BitGrid[] grids;
+        final PlacementGenerator[] generators;
+
+        Walker(int depth) {
+            grids = new BitGrid[depth + 1];
+            generators = new PlacementGenerator[depth];
+            for (int i = 0; i <= depth; i++) {
+                grids[i] = new BitGrid();
+            }
+            for (int i = 0; i < depth; i++) {
+                generators[i] = new PlacementGenerator();
+            }
+        }
+
+        long count(BitGrid grid, int ply, int depth, boolean bulk) {
+            if (depth == 0) {
+                return 1;
+            }
+            PlacementGenerator generator = generators[ply];
+            int count = spawn(generator, grid, ply);
+            if (bulk && depth == 1) {
+                return count;
+            }
+            BitGrid child = grids[ply + 1];
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                child.copyFrom(grid);
+                generator.place(i, child);
+                total += count(child, ply + 1, depth - 1, bulk);
+            }
+            return total;
+        }
+    }
+
+    // Gera os encaixes da peça da vez a partir do ponto de surgimento do Board
+    private int spawn(PlacementGenerator generator, BitGrid grid, int ply) {
+        Shape.Tetrominoe shape = sequence[ply % sequence.length];
+        return generator.generate(grid, shape, 0, Board.SPAWN_X, Board.spawnY(shape));
+    }
+
+    // Conta e imprime o tempo; threads = 0 usa o modo de referência
+    private long timed(int depth, int threads) throws InterruptedException, ExecutionException {
+        long begin = System.nanoTime();
+        long nodes = threads == 0 ? countReference(depth) : countParallel(depth, threads);
+        double seconds = Math.max(1, System.nanoTime() - begin) / 1e9;
+        System.out.printf("perft(%d) = %d  [%s] %.3f s, %.0f encaixes/s%n", depth, nodes,
+                threads == 0 ? "referência, 1 thread" : "paralelo, " + threads + (threads == 1 ? " thread" : " threads"), seconds, nodes / seconds);
+        return nodes;
+    }
+
+    private static boolean runSuite() throws InterruptedException, ExecutionException {
+        boolean ok = true;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (String[] position : SUITE) {
+            Perft perft = new Perft(parseGrid(position[0]), parseSequence(position[1]));
+            int depth = Integer.parseInt(position[2]);
+            long expected = Long.parseLong(position[3]);
+            long parallel = perft.countParallel(depth, threads);
+            long single = perft.countReference(depth);
+            boolean match = parallel == expected && single == expected;
+            ok &= match;
+            System.out.printf("%-6s %s / %s / %d: esperado %d, paralelo %d, referência %d%n",
+                    match ? "OK" : "FALHA", position[0].isEmpty() ? "(vazia)" : position[0],
+                    position[1], depth, expected, parallel, single);
+        }
+        return ok;
+    }
+
+    /**
+     * Lê a grelha no formato de {@code --board}: linhas de cima para baixo, a última é a do chão.
+     */
+    static BitGrid parseGrid(String rows) {
+        BitGrid grid = new BitGrid();
+        if (rows.isEmpty()) {
+            return grid;
+        }
+        String[] lines = rows.split("/", -1);
+        if (lines.length > BitGrid.HEIGHT) {
+            throw new IllegalArgumentException("A grelha tem mais de " + BitGrid.HEIGHT + " linhas");
+        }
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (line.length() != BitGrid.WIDTH) {
+                throw new IllegalArgumentException("Linha com " + line.length() + " colunas: \"" + line + "\"");
+            }
+            int y = lines.length - 1 - i;
+            for (int x = 0; x < BitGrid.WIDTH; x++) {
+                char c = line.charAt(x);
+                if (c != '.') {
+                    Shape.Tetrominoe shape = shapeOf(c);
+                    grid.set(x, y, shape == null ? Shape.Tetrominoe.LineShape : shape);
+                }
+            }
+        }
+        return grid;
+    }
+
+    static Shape.Tetrominoe[] parseSequence(String pieces) {
+        Shape.Tetrominoe[] sequence = new Shape.Tetrominoe[pieces.length()];
+        for (int i = 0; i < sequence.length; i++) {
+            sequence[i] = shapeOf(pieces.charAt(i));
+            if (sequence[i] == null) {
+                throw new IllegalArgumentException("Peça desconhecida: " + pieces.charAt(i));
+            }
+        }
+        return sequence;
+    }
+
+    private static Shape.Tetrominoe shapeOf(char letter) {
+        switch (Character.toUpperCase(letter)) {
+            case 'I':
+                return Shape.Tetrominoe.LineShape;
+            case 'O':
+                return Shape.Tetrominoe.SquareShape;
+            case 'T':
+                return Shape.Tetrominoe.TShape;
+            case 'S':
+                return Shape.Tetrominoe.SShape;
+            case 'Z':
+                return Shape.Tetrominoe.ZShape;
+            case 'L':
+                return Shape.Tetrominoe.LShape;
+            case 'J':
+                return Shape.Tetrominoe.MirroredLShape;
+            default:
+                return null;
+        }
+    }
+}
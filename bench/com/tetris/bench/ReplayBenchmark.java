@@ -0,0 +1,45 @@
+package com.tetris.bench;
+
+import com.tetris.engine.Replay;
+import com.tetris.engine.ReplayPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da reprodução headless de um replay gravado (decodificação + partida inteira).
+ * Dividindo a duração da partida gravada pelo tempo medido tem-se quantas vezes a
+ * reprodução é mais rápida que o tempo real.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplayBenchmark {
+
+    private static final long SEED = 2024L;
+    private static final int MAX_PIECES = 10_000;
+
+    private byte[] replay;
+
+    @Setup
+    public void setUp() {
+        replay = ScriptedGame.record(SEED, MAX_PIECES);
+    }
+
+    @Benchmark
+    public int playHeadless() {
+        return ReplayPlayer.playHeadless(Replay.decode(replay)).getBoard().getScore();
+    }
+}
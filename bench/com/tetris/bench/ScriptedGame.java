@@ -0,0 +1,95 @@
+package com.tetris.bench;
+
+import com.tetris.engine.Action;
+import com.tetris.engine.GameEngine;
+import com.tetris.engine.ReplayRecorder;
+import com.tetris.model.Board;
+
+/**
+ * Partida roteirizada e determinística usada pelos benchmarks.
+ * Para cada peça escolhe uma rotação e uma coluna a partir do índice da peça,
+ * aplica as ações com alguns frames de gravidade entre elas e faz hard drop.
+ */
+final class ScriptedGame {
+
+    private static final int FRAMES_BETWEEN_ACTIONS = 2;
+
+    private ScriptedGame() {
+    }
+
+    /**
+     * Joga uma partida completa (ou até o limite de peças) e retorna a pontuação final.
+     */
+    static int play(GameEngine engine, long seed, int maxPieces) {
+        engine.start(seed);
+        Board board = engine.getBoard();
+        for (int n = 0; n < maxPieces && !board.isGameOver(); n++) {
+            int rotations = n % 4;
+            int shift = (n * 3) % 10 - 5;
+            for (int r = 0; r < rotations; r++) {
+                act(engine, Action.ROTATE_RIGHT);
+            }
+            Action move = shift < 0 ? Action.MOVE_LEFT : Action.MOVE_RIGHT;
+            for (int s = Math.abs(shift); s > 0; s--) {
+                act(engine, move);
+            }
+            act(engine, Action.HARD_DROP);
+        }
+        return board.getScore();
+    }
+
+    /**
+     * Joga a mesma partida roteirizada com teclas pressionadas e soltas (o caminho do teclado),
+     * gravando o replay até o game over.
+     */
+    static byte[] record(long seed, int maxPieces) {
+        GameEngine engine = new GameEngine(seed);
+        ReplayRecorder recorder = new ReplayRecorder();
+        engine.setRecorder(recorder);
+        engine.start(seed);
+        Board board = engine.getBoard();
+        for (int n = 0; n < maxPieces && !board.isGameOver(); n++) {
+            int rotations = n % 4;
+            int shift = (n * 3) % 10 - 5;
+            for (int r = 0; r < rotations; r++) {
+                tap(engine, Action.ROTATE_RIGHT);
+            }
+            Action move = shift < 0 ? Action.MOVE_LEFT : Action.MOVE_RIGHT;
+            for (int s = Math.abs(shift); s > 0; s--) {
+                tap(engine, move);
+            }
+            tap(engine, Action.HARD_DROP);
+        }
+        // Sem novas teclas, a gravidade leva a partida até o fim
+        engine.runUntilGameOver(Long.MAX_VALUE);
+        return recorder.finish(engine.getFrame());
+    }
+
+    /**
+     * Prepara um tabuleiro com algumas peças já assentadas, para medir operações sobre uma pilha real.
+     */
+    static GameEngine stacked(long seed, int pieces) {
+        GameEngine engine = new GameEngine(seed);
+        play(engine, seed, pieces);
+        if (engine.getBoard().isGameOver()) {
+            throw new IllegalStateException("Semente " + seed + " termina antes de " + pieces + " peças");
+        }
+        return engine;
+    }
+
+    private static void tap(GameEngine engine, Action action) {
+        engine.press(action);
+        engine.tick();
+        engine.release(action);
+        for (int f = 1; f < FRAMES_BETWEEN_ACTIONS; f++) {
+            engine.tick();
+        }
+    }
+
+    private static void act(GameEngine engine, Action action) {
+        engine.step(action);
+        for (int f = 0; f < FRAMES_BETWEEN_ACTIONS; f++) {
+            engine.tick();
+        }
+    }
+}
@@ -1,34 +1,113 @@
 package com.tetris.controller;
 
 import com.tetris.db.Database;
+import com.tetris.db.GameSessionWriter;
+import com.tetris.db.PersistedState;
+import com.tetris.db.RecoveryStore;
+import com.tetris.db.ReplayArchive;
+import com.tetris.db.StateStore;
+import com.tetris.engine.Action;
+import com.tetris.engine.GameEngine;
+import com.tetris.engine.Replay;
+import com.tetris.engine.ReplayRecorder;
+import com.tetris.engine.RewindBuffer;
+import com.tetris.engine.SnapshotCodec;
 import com.tetris.model.Board;
+import com.tetris.model.GeneratorMode;
+import com.tetris.model.GameSnapshot;
 import com.tetris.model.Theme;
+import com.tetris.view.ActiveBoardCanvas;
 import com.tetris.view.GameFrame;
-import javax.swing.Timer;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * O Controller no padrão MVC.
  * Faz a ponte entre o Model (Board) e a View (GameFrame).
- * Contém o game loop (Timer) e gere os inputs do utilizador.
+ * A lógica do jogo roda no {@link GameLoop}, numa thread própria; este controller apenas
+ * encaminha os inputs para o loop e aplica na View os snapshots que ele publica.
+ * As teclas de jogo viram eventos de pressionar/soltar; o auto-repeat (DAS/ARR) é feito pelo motor.
+ * Com -Dtetris.activeRender=true o tabuleiro é desenhado direto pelo game loop ({@link ActiveBoardCanvas}).
+ * Cada partida é gravada como replay (semente + teclas por frame) junto com o registro no banco,
+ * e pode ser revista a partir do histórico ({@link #watchReplay(long)}).
+ * A cada segundo de jogo um snapshot vai para o {@link RewindBuffer} (BACKSPACE volta no tempo),
+ * e a cada cinco segundos a partida é gravada no {@link RecoveryStore}: se o processo cair, ela
+ * volta pausada na próxima execução.
  */
-public class GameController extends KeyAdapter implements ActionListener {
+public class GameController extends KeyAdapter {
 
-    private static final int INITIAL_DELAY = 400;
+    private static final int DEFAULT_REFRESH_RATE = 60;
+    private static final int REWIND_SNAPSHOTS = 10;
+    private static final int REWIND_INTERVAL_FRAMES = GameEngine.FRAMES_PER_SECOND;
+    // Cada BACKSPACE volta ao menos meio segundo (até o snapshot anterior a isso)
+    private static final int REWIND_MIN_FRAMES = GameEngine.FRAMES_PER_SECOND / 2;
+    private static final int RECOVERY_INTERVAL_FRAMES = 5 * GameEngine.FRAMES_PER_SECOND;
+    private static final int RECOVERY_MAGIC = 0x54524543; // "TREC"
+    private static final byte RECOVERY_VERSION = 1;
 
     private final GameFrame gameFrame;
     private final Board board;
-    private final Timer timer;
+    private final GameEngine engine;
+    private final GameLoop gameLoop;
+    private final GameSessionWriter sessionWriter;
+    private final StateStore stateStore;
+    private final ReplayRecorder recorder = new ReplayRecorder();
+    private final RewindBuffer rewindBuffer = new RewindBuffer(REWIND_SNAPSHOTS, recorder);
+    private final RecoveryStore recoveryStore;
+    private final AtomicBoolean renderPending = new AtomicBoolean(false);
+    private final ActiveBoardCanvas activeCanvas; // null no modo Swing padrão
     private int currentThemeIndex = 0;
-    private String playerName = "";
+    private volatile String playerName = "";
+    private volatile byte[] playerNameBytes = new byte[0];
+
+    // Buffer reaproveitado para o arquivo de recuperação (usado só na thread do game loop)
+    private ByteBuffer recoveryBuffer = ByteBuffer.allocate(8192);
+
+    // Último snapshot repassado à EDT no modo ativo (usado só na thread do game loop)
+    private GameSnapshot edtState;
+
+    // Último estado e tema desenhados (usados só na EDT para calcular as regiões alteradas)
+    private GameSnapshot renderedState;
+    private Theme renderedTheme;
 
     public GameController(GameFrame gameFrame, Board board) {
         this.gameFrame = gameFrame;
         this.board = board;
-        this.timer = new Timer(getDelayForLevel(), this);
+
+        // Recorde, preferências e tema da última execução (o loop ainda não começou, então o Board é só nosso)
+        this.stateStore = StateStore.getDefault();
+        PersistedState saved = stateStore.get();
+        board.setHighScore(saved.highScore());
+        board.setGhostPieceEnabled(saved.ghostPieceEnabled());
+        this.currentThemeIndex = Math.floorMod(saved.themeIndex(), Theme.AVAILABLE_THEMES.length);
+        this.engine = new GameEngine(board, System.nanoTime());
+        this.engine.setAutoRepeat(Integer.getInteger("tetris.das", GameEngine.DEFAULT_DAS_FRAMES),
+                Integer.getInteger("tetris.arr", GameEngine.DEFAULT_ARR_FRAMES));
+        this.engine.setRecorder(recorder);
+        this.recoveryStore = RecoveryStore.getDefault();
+        restoreRecovery();
+        // Abre o banco (e cria o esquema) em segundo plano já na inicialização
+        this.sessionWriter = GameSessionWriter.getDefault();
+        this.activeCanvas = gameFrame.getGamePanel().getActiveCanvas();
+        if (activeCanvas != null) {
+            this.gameLoop = new GameLoop(engine, this::renderActive, this::onGameOver, detectRefreshRate());
+            this.gameLoop.setContinuousRender(true);
+            this.activeCanvas.setExposeListener(gameLoop::requestRender);
+        } else {
+            this.gameLoop = new GameLoop(engine, this::scheduleRender, this::onGameOver, detectRefreshRate());
+        }
+        this.gameLoop.setTickListener(this::onTick);
+        this.gameFrame.getGamePanel().setReplayHandler(this::watchReplay);
         this.gameFrame.getGamePanel().addKeyListener(this);
         this.gameFrame.getGamePanel().setFocusable(true);
     }
@@ -37,7 +116,8 @@ public class GameController extends KeyAdapter implements ActionListener {
      * Método público para ser chamado pela UI (botão Start) para iniciar o jogo.
      */
     public void startGameFromUI() {
-        if ((!board.isStarted() || board.isGameOver())) {
+        GameSnapshot state = gameLoop.getSnapshot();
+        if (!state.isStarted() || state.isGameOver() || gameLoop.isReplaying()) {
             if (playerName == null || playerName.trim().isEmpty()) {
                 if (gameFrame.getOverlayPanel() != null) {
                     gameFrame.getOverlayPanel().requestFocusForName();
@@ -45,76 +125,284 @@ public class GameController extends KeyAdapter implements ActionListener {
                 return;
             }
 
-            board.start();
-            if (!timer.isRunning()) {
-                timer.start();
-            }
-
+            startNewGame();
             gameFrame.getGamePanel().requestFocusInWindow();
-            updateView();
         }
     }
 
     public void setPlayerName(String name) {
         this.playerName = name == null ? "" : name.trim();
+        this.playerNameBytes = playerName.getBytes(StandardCharsets.UTF_8);
     }
 
     public void start() {
-        timer.start();
+        gameLoop.start();
         gameFrame.getGamePanel().requestFocusInWindow();
-        updateView();
+        updateView(gameLoop.getSnapshot());
     }
 
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        if (board.isStarted() && !board.isPaused() && !board.isGameOver()) {
-            board.movePieceDown();
+    // Cada partida usa uma semente nova; a partida é reproduzível a partir dela
+    private void startNewGame() {
+        long seed = System.nanoTime();
+        gameLoop.stopReplay();
+        gameLoop.submit(() -> {
+            rewindBuffer.clear();
+            recoveryStore.clear();
+            engine.start(seed);
+        });
+    }
+
+    /**
+     * Retoma a partida do arquivo de recuperação, se houver (chamado antes do loop começar).
+     * Ela volta pausada e sem teclas seguradas; o replay continua sendo gravado de onde parou.
+     * Um arquivo inválido (outra versão, outro modo do gerador ou dados corrompidos) é descartado
+     * e o motor volta ao estado em que estava antes da tentativa.
+     */
+    private void restoreRecovery() {
+        ByteBuffer data = recoveryStore.load();
+        if (data == null) {
+            return;
+        }
+        // O motor ainda não jogou nada: guarda o estado inicial para desfazer uma restauração parcial
+        ByteBuffer pristine = ByteBuffer.allocate(SnapshotCodec.MAX_BYTES);
+        SnapshotCodec.encode(engine, pristine);
+        pristine.flip();
+        byte[] name;
+        try {
+            if (data.remaining() < Integer.BYTES + 1 || data.getInt() != RECOVERY_MAGIC) {
+                throw new IllegalArgumentException("Não é um arquivo de recuperação");
+            }
+            byte version = data.get();
+            if (version != RECOVERY_VERSION) {
+                throw new IllegalArgumentException("Versão de recuperação não suportada: " + version);
+            }
+            int nameLength = data.getShort() & 0xFFFF;
+            if (nameLength > data.remaining()) {
+                throw new IllegalArgumentException("Nome do jogador truncado");
+            }
+            name = new byte[nameLength];
+            data.get(name);
+            recorder.readState(data);
+            SnapshotCodec.decode(data, engine);
+        } catch (RuntimeException e) {
+            // Além dos erros de validação, um arquivo truncado ou corrompido pode falhar em qualquer leitura
+            System.err.println("Partida não recuperada: " + e);
+            SnapshotCodec.decode(pristine, engine);
+            recorder.begin(null, 0, 0, 0);
+            recoveryStore.clear();
+            return;
+        }
+        setPlayerName(new String(name, StandardCharsets.UTF_8));
+        releaseHeldKeys();
+        if (engine.isRunning()) {
+            engine.press(Action.PAUSE);
+        }
+        System.out.println("Partida recuperada no frame " + engine.getFrame());
+    }
+
+    /**
+     * Chamado na thread do game loop ao fim de cada tick da partida: captura o snapshot de rewind
+     * e, com menos frequência, grava o arquivo de recuperação. Nenhum dos dois aloca.
+     */
+    private void onTick() {
+        if (!engine.isRunning()) {
+            return;
+        }
+        long frame = engine.getFrame();
+        if (frame % REWIND_INTERVAL_FRAMES == 0) {
+            rewindBuffer.capture(engine);
+        }
+        if (frame % RECOVERY_INTERVAL_FRAMES == 0) {
+            saveRecovery();
+        }
+    }
+
+    // Arquivo de recuperação: cabeçalho, nome do jogador, replay em andamento e snapshot da partida
+    private void saveRecovery() {
+        byte[] name = playerNameBytes;
+        int needed = Integer.BYTES + 1 + Short.BYTES + name.length + recorder.getStateBytes() + SnapshotCodec.MAX_BYTES;
+        if (recoveryBuffer.capacity() < needed) {
+            recoveryBuffer = ByteBuffer.allocate(Math.max(needed, recoveryBuffer.capacity() * 2));
         }
+        recoveryBuffer.clear();
+        recoveryBuffer.putInt(RECOVERY_MAGIC).put(RECOVERY_VERSION);
+        recoveryBuffer.putShort((short) name.length).put(name);
+        recorder.writeState(recoveryBuffer);
+        SnapshotCodec.encode(engine, recoveryBuffer);
+        recoveryBuffer.flip();
+        recoveryStore.save(recoveryBuffer);
+    }
 
-        if (board.isGameOver()) {
-            timer.stop();
-            Database.createTable();
-            String playerToSave = (playerName == null || playerName.trim().isEmpty()) ? "Jogador1" : playerName;
-            Database.saveGame(playerToSave, board.getScore(), board.getLevel(), board.getLinesCleared());
-            updateView();
+    // Volta ao snapshot anterior (na thread do game loop); as teclas seguradas são soltas
+    private void rewind() {
+        if (!engine.isRunning() || gameLoop.isReplaying()) {
             return;
         }
+        if (rewindBuffer.rewind(engine, REWIND_MIN_FRAMES)) {
+            releaseHeldKeys();
+        }
+    }
+
+    private void releaseHeldKeys() {
+        engine.release(Action.MOVE_LEFT);
+        engine.release(Action.MOVE_RIGHT);
+        engine.release(Action.SOFT_DROP);
+    }
+
+    // Chamado na thread do game loop: agenda no máximo um desenho pendente na EDT
+    private void scheduleRender(GameSnapshot snapshot) {
+        if (renderPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                renderPending.set(false);
+                updateView(gameLoop.getSnapshot());
+            });
+        }
+    }
+
+    /**
+     * Modo de renderização ativa: o tabuleiro é desenhado aqui mesmo, na thread do game loop;
+     * a EDT só é acionada quando algo fora do tabuleiro muda (pontuação, prévia, status).
+     */
+    private void renderActive(GameSnapshot snapshot) {
+        activeCanvas.render(snapshot);
+        if (edtState == null || (snapshot != edtState && snapshot.changedFields(edtState) != 0)) {
+            edtState = snapshot;
+            scheduleRender(snapshot);
+        }
+    }
+
+    // Chamado na thread do game loop quando a partida termina; a gravação em disco fica com o
+    // GameSessionWriter e o StateStore, ambos em threads próprias
+    private void onGameOver() {
+        String playerToSave = (playerName == null || playerName.trim().isEmpty()) ? "Jogador1" : playerName;
+        byte[] replay = recorder.finish(engine.getFrame());
+        sessionWriter.submit(playerToSave, board.getScore(), board.getLevel(), board.getLinesCleared(), replay);
+        recoveryStore.clear();
+        int highScore = board.getHighScore();
+        stateStore.update(state -> highScore > state.highScore() ? state.withHighScore(highScore) : state);
+    }
 
-        timer.setDelay(getDelayForLevel());
-        updateView();
+    /**
+     * Revê uma partida do histórico em tempo real, no lugar da partida atual.
+     * O replay vem do {@link ReplayArchive} (ou, para partidas antigas, do banco) em segundo plano;
+     * ENTER (ou o botão Start) volta ao jogo normal.
+     */
+    public void watchReplay(long sessionId) {
+        new SwingWorker<Replay, Void>() {
+            @Override
+            protected Replay doInBackground() throws Exception {
+                ReplayArchive archive = ReplayArchive.getDefault();
+                ReplayArchive.Entry entry = archive == null ? null : archive.get(sessionId);
+                if (entry != null) {
+                    return Replay.decode(entry.replay());
+                }
+                byte[] data = Database.getReplay(sessionId);
+                return data == null ? null : Replay.decode(data);
+            }
+
+            @Override
+            protected void done() {
+                Replay replay;
+                try {
+                    replay = get();
+                    if (replay == null) {
+                        showReplayError("Esta missão não tem replay gravado.");
+                        return;
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    showReplayError("Não foi possível ler o replay: " + e.getMessage());
+                    return;
+                }
+                // O gerador do Board é fixo; o replay só é reproduzível com o mesmo modo
+                if (replay.getMode() != GeneratorMode.of(board.getPieceGenerator())) {
+                    showReplayError("Replay gravado no modo " + replay.getMode().name().toLowerCase()
+                            + " (use -Dtetris.randomizer=" + replay.getMode().name().toLowerCase() + ").");
+                    return;
+                }
+                // A partida em andamento é abandonada: não há mais o que recuperar
+                recoveryStore.clear();
+                gameLoop.playReplay(replay);
+                gameFrame.getGamePanel().requestFocusInWindow();
+            }
+        }.execute();
+    }
+
+    private void showReplayError(String message) {
+        JOptionPane.showMessageDialog(gameFrame, message, "Replay", JOptionPane.WARNING_MESSAGE);
     }
 
-    private void updateView() {
-        gameFrame.getGamePanel().getBoardPanel().updateBoard(board);
-        gameFrame.getGamePanel().getInfoPanel().updateInfo(board);
-        gameFrame.getOverlayPanel().updateBoard(board);
+    /**
+     * Aplica o snapshot na View. Redesenha a janela inteira só quando o tema ou o status
+     * (início, pausa, game over) mudam; caso contrário cada painel redesenha apenas as
+     * regiões alteradas (células da peça, linhas removidas, caixas de pontuação).
+     */
+    private void updateView(GameSnapshot state) {
+        gameFrame.getGamePanel().getBoardPanel().updateBoard(state);
+        gameFrame.getGamePanel().getInfoPanel().updateInfo(state);
+        gameFrame.getOverlayPanel().updateBoard(state);
 
         Theme currentTheme = Theme.AVAILABLE_THEMES[currentThemeIndex];
         gameFrame.getGamePanel().updateTheme(currentTheme);
+        saveSettings(state);
         gameFrame.getOverlayPanel().updateTheme(currentTheme);
 
-        gameFrame.repaint();
+        if (activeCanvas != null) {
+            // O menu (Swing) só fica visível antes da partida; pausa e game over são desenhados no canvas
+            gameFrame.getOverlayPanel().setVisible(!state.isStarted());
+        }
+
+        GameSnapshot previous = renderedState;
+        renderedState = state;
+        if (previous == null || currentTheme != renderedTheme) {
+            renderedTheme = currentTheme;
+            gameFrame.repaint();
+            return;
+        }
+        if (previous == state) {
+            return;
+        }
+
+        int changed = state.changedFields(previous);
+        if ((changed & GameSnapshot.CHANGED_STATUS) != 0) {
+            gameFrame.repaint();
+            return;
+        }
+        if (activeCanvas == null) {
+            gameFrame.getGamePanel().getBoardPanel().repaintChanges(previous, state);
+        }
+        gameFrame.getGamePanel().getInfoPanel().repaintChanges(changed);
+    }
+
+    // Grava tema e peça fantasma quando mudam (o StateStore ignora estados iguais ao atual)
+    private void saveSettings(GameSnapshot state) {
+        int themeIndex = currentThemeIndex;
+        boolean ghost = state.isGhostPieceEnabled();
+        PersistedState saved = stateStore.get();
+        if (saved.themeIndex() != themeIndex || saved.ghostPieceEnabled() != ghost) {
+            stateStore.update(s -> s.withThemeIndex(themeIndex).withGhostPieceEnabled(ghost));
+        }
     }
 
     @Override
     public void keyPressed(KeyEvent e) {
         int keycode = e.getKeyCode();
+        GameSnapshot state = gameLoop.getSnapshot();
 
         if (keycode == KeyEvent.VK_T) {
             currentThemeIndex = (currentThemeIndex + 1) % Theme.AVAILABLE_THEMES.length;
-            updateView();
+            updateView(state);
             return;
         }
 
         // Alterna peça fantasma
         if (keycode == KeyEvent.VK_G) {
-            board.toggleGhostPiece();
-            updateView();
+            gameLoop.offerInput(Action.TOGGLE_GHOST, true);
             return;
         }
 
-        // ENTER: iniciar o jogo
-        if ((!board.isStarted() || board.isGameOver()) && keycode == KeyEvent.VK_ENTER) {
+        // ENTER: iniciar o jogo (também interrompe um replay em andamento)
+        boolean replaying = gameLoop.isReplaying();
+        if ((!state.isStarted() || state.isGameOver() || replaying) && keycode == KeyEvent.VK_ENTER) {
             if (playerName == null || playerName.trim().isEmpty()) {
                 if (gameFrame.getOverlayPanel() != null) {
                     gameFrame.getOverlayPanel().requestFocusForName();
@@ -122,87 +410,81 @@ public class GameController extends KeyAdapter implements ActionListener {
                 return;
             }
 
-            board.start();
-            if (!timer.isRunning()) {
-                timer.start();
-            }
-            updateView();
+            startNewGame();
             return;
         }
 
-        if (!board.isStarted() || board.isGameOver()) {
+        if (!state.isStarted() || state.isGameOver() || replaying) {
             return;
         }
 
         // PAUSE (P)
         if (keycode == KeyEvent.VK_P) {
-            board.togglePause();
-            updateView();
+            gameLoop.offerInput(Action.PAUSE, true);
+            return;
+        }
+
+        if (state.isPaused()) {
             return;
         }
 
-        if (board.isPaused()) {
+        // BACKSPACE: volta no tempo
+        if (keycode == KeyEvent.VK_BACK_SPACE) {
+            gameLoop.submit(this::rewind);
             return;
         }
 
+        Action action = actionFor(keycode);
+        if (action != null) {
+            gameLoop.offerInput(action, true);
+        }
+    }
+
+    @Override
+    public void keyReleased(KeyEvent e) {
+        // Soltar sempre é encaminhado, mesmo em pausa, para o motor não ficar com a tecla "presa"
+        Action action = actionFor(e.getKeyCode());
+        if (action != null) {
+            gameLoop.offerInput(action, false);
+        }
+    }
+
+    private static Action actionFor(int keycode) {
         switch (keycode) {
             case KeyEvent.VK_LEFT:
-                board.moveLeft();
-                break;
+                return Action.MOVE_LEFT;
             case KeyEvent.VK_RIGHT:
-                board.moveRight();
-                break;
+                return Action.MOVE_RIGHT;
             case KeyEvent.VK_DOWN:
-                board.movePieceDown();
-                break;
+                return Action.SOFT_DROP;
             case KeyEvent.VK_UP:
-                board.rotateRight();
-                break;
+                return Action.ROTATE_RIGHT;
             case KeyEvent.VK_Z:
-                board.rotateLeft();
-                break;
+                return Action.ROTATE_LEFT;
             case KeyEvent.VK_SPACE:
-                board.dropDown();
-                break;
+                return Action.HARD_DROP;
+            default:
+                return null;
         }
-
-        updateView();
     }
 
-    private int getDelayForLevel() {
-        return Math.max(100, INITIAL_DELAY - (board.getLevel() - 1) * 30);
+    private static int detectRefreshRate() {
+        try {
+            DisplayMode mode = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode();
+            int rate = mode.getRefreshRate();
+            return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : rate;
+        } catch (HeadlessException e) {
+            return DEFAULT_REFRESH_RATE;
+        }
     }
 
     /**
      * Reinicia completamente o jogo (usado pelo botão "Reiniciar Missão").
-     * Corrigido para não depender de setPaused(boolean) inexistente.
+     * O reinício é executado na thread do game loop, entre dois ticks.
      */
     public void resetGame() {
         try {
-            // Para o timer se estiver rodando
-            if (timer.isRunning()) {
-                timer.stop();
-            }
-
-            // Se o board estiver pausado, despausa usando o método público que já existe
-            try {
-                if (board.isPaused()) {
-                    board.togglePause();
-                }
-            } catch (Exception ex) {
-                // fallback silencioso caso o Board se comporte diferente — não queremos quebrar o reset
-                System.err.println("Aviso: não foi possível verificar/despausar board via isPaused/togglePause: " + ex.getMessage());
-            }
-
-            // Reinicia o tabuleiro (usa board.start() conforme seu código existente)
-            board.start();
-
-            // Reinicia o timer e o foco
-            timer.setDelay(getDelayForLevel());
-            timer.start();
-
-            // Atualiza a tela
-            updateView();
+            startNewGame();
 
             // Garante que o teclado volte a funcionar
             gameFrame.getGamePanel().requestFocusInWindow();
@@ -0,0 +1,273 @@
+package com.tetris.controller;
+
+import com.tetris.engine.Action;
+import com.tetris.engine.GameEngine;
+import com.tetris.engine.InputQueue;
+import com.tetris.engine.Replay;
+import com.tetris.engine.ReplayPlayer;
+import com.tetris.model.GameSnapshot;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Game loop de passo fixo numa thread dedicada.
+ * A lógica avança exatamente FRAMES_PER_SECOND vezes por segundo, independente da carga da EDT;
+ * a cada mudança de estado um {@link GameSnapshot} imutável é publicado, e a renderização
+ * é pedida no máximo uma vez por intervalo de atualização do monitor.
+ * Os eventos de teclado chegam por uma {@link InputQueue} lock-free e são drenados uma vez por tick.
+ * Durante um replay ({@link #playReplay}) as teclas vêm do {@link ReplayPlayer} e o teclado é ignorado.
+ */
+public class GameLoop implements Runnable, InputQueue.Sink {
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / GameEngine.FRAMES_PER_SECOND;
+    // Limite de ticks recuperados de uma vez depois de um atraso (ex: GC ou máquina suspensa)
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    private static final int INPUT_QUEUE_CAPACITY = 256;
+
+    private final GameEngine engine;
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final InputQueue inputQueue = new InputQueue(INPUT_QUEUE_CAPACITY);
+    private final Consumer<GameSnapshot> renderer;
+    private final Runnable onGameOver;
+    private final long renderIntervalNanos;
+
+    private volatile GameSnapshot snapshot;
+    private volatile boolean running;
+    private volatile boolean renderRequested;
+    private volatile boolean continuousRender;
+    private volatile boolean replaying;
+    private volatile Runnable tickListener;
+    private Thread thread;
+    private ReplayPlayer replay; // replay em andamento (só na thread do loop), ou null
+
+    private long publishedVersion = -1;
+    private long renderedVersion = -1;
+    private boolean wasGameOver;
+    private long lastRenderNanos;
+
+    // Latência entre a captura da tecla e a aplicação no estado do jogo
+    private volatile long maxInputLatencyNanos;
+    private volatile long averageInputLatencyNanos;
+    private long inputEvents;
+    private long totalInputLatencyNanos;
+    private long drainNanos;
+
+    /**
+     * @param renderer recebe o snapshot mais recente; é chamado na thread do game loop e deve
+     *                 apenas agendar o desenho (ex: SwingUtilities.invokeLater)
+     * @param onGameOver chamado na thread do game loop quando a partida termina
+     * @param refreshRate taxa de atualização do monitor em Hz (limita a frequência de renderização)
+     */
+    public GameLoop(GameEngine engine, Consumer<GameSnapshot> renderer, Runnable onGameOver, int refreshRate) {
+        this.engine = engine;
+        this.renderer = renderer;
+        this.onGameOver = onGameOver;
+        this.renderIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, refreshRate);
+        this.snapshot = GameSnapshot.of(engine.getBoard(), engine.getFrame());
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "tetris-game-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread = null;
+        }
+    }
+
+    /**
+     * Agenda uma alteração do estado do jogo para ser executada na thread do game loop,
+     * no início do próximo tick. Pode ser chamado de qualquer thread.
+     */
+    public void submit(Runnable command) {
+        commands.add(command);
+    }
+
+    /**
+     * Publica um evento de tecla para o próximo tick. Deve ser chamado sempre pela mesma
+     * thread (a EDT, onde roda o KeyListener).
+     * @return false se a fila estiver cheia e o evento tiver sido descartado
+     */
+    public boolean offerInput(Action action, boolean pressed) {
+        return inputQueue.offer(action, pressed, System.nanoTime());
+    }
+
+    /**
+     * Com renderização contínua o renderer é chamado a cada intervalo de atualização mesmo sem
+     * mudança de estado (usado pela renderização ativa, que mede o tempo de cada frame).
+     */
+    public void setContinuousRender(boolean continuousRender) {
+        this.continuousRender = continuousRender;
+    }
+
+    /**
+     * Define uma ação executada na thread do game loop ao fim de cada tick da partida (não durante
+     * replays), com o motor já no estado do frame; usada para capturar snapshots. Deve ser rápida
+     * e não alocar.
+     */
+    public void setTickListener(Runnable tickListener) {
+        this.tickListener = tickListener;
+    }
+
+    /**
+     * Pede um novo frame no próximo tick, mesmo que o estado não tenha mudado
+     * (ex: a janela foi descoberta). Pode ser chamado de qualquer thread.
+     */
+    public void requestRender() {
+        renderRequested = true;
+    }
+
+    /**
+     * Reproduz uma partida gravada em tempo real, no lugar da partida atual.
+     * Pode ser chamado de qualquer thread.
+     */
+    public void playReplay(Replay recorded) {
+        submit(() -> {
+            endReplay();
+            replay = new ReplayPlayer(recorded, engine);
+            replay.start();
+            replaying = true;
+            wasGameOver = false;
+        });
+    }
+
+    /**
+     * Interrompe o replay em andamento (se houver) antes dos próximos comandos.
+     */
+    public void stopReplay() {
+        submit(this::endReplay);
+    }
+
+    public boolean isReplaying() {
+        return replaying;
+    }
+
+    private void endReplay() {
+        if (replay != null) {
+            replay.restoreAutoRepeat();
+            replay = null;
+            replaying = false;
+        }
+    }
+
+    public long getMaxInputLatencyNanos() {
+        return maxInputLatencyNanos;
+    }
+
+    public long getAverageInputLatencyNanos() {
+        return averageInputLatencyNanos;
+    }
+
+    /**
+     * Snapshot mais recente publicado (seguro para ler de qualquer thread).
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime();
+        publish(true);
+        while (running) {
+            long now = System.nanoTime();
+            if (now - nextTick > MAX_CATCH_UP_TICKS * TICK_NANOS) {
+                nextTick = now - MAX_CATCH_UP_TICKS * TICK_NANOS;
+            }
+            while (now - nextTick >= 0) {
+                tick();
+                nextTick += TICK_NANOS;
+            }
+            publish(false);
+            LockSupport.parkNanos(nextTick - System.nanoTime());
+        }
+    }
+
+    private void tick() {
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+
+        drainNanos = System.nanoTime();
+        inputQueue.drain(this);
+
+        if (replay != null) {
+            replay.tick();
+        } else {
+            engine.tick();
+        }
+
+        boolean gameOver = engine.getBoard().isGameOver();
+        if (gameOver && !wasGameOver) {
+            publish(true);
+            // O fim de um replay não é uma partida nova: nada é gravado
+            if (replay == null) {
+                onGameOver.run();
+            }
+        }
+        wasGameOver = gameOver;
+        if (replay != null) {
+            if (replay.isFinished()) {
+                endReplay();
+            }
+        } else if (tickListener != null) {
+            tickListener.run();
+        }
+    }
+
+    @Override
+    public void accept(Action action, boolean pressed, long timestampNanos) {
+        long latency = drainNanos - timestampNanos;
+        inputEvents++;
+        totalInputLatencyNanos += latency;
+        averageInputLatencyNanos = totalInputLatencyNanos / inputEvents;
+        if (latency > maxInputLatencyNanos) {
+            maxInputLatencyNanos = latency;
+        }
+
+        if (replay != null) {
+            return;
+        }
+        if (pressed) {
+            engine.press(action);
+        } else {
+            engine.release(action);
+        }
+    }
+
+    // Publica um novo snapshot se o Board mudou e pede a renderização respeitando a taxa do monitor
+    private void publish(boolean force) {
+        long version = engine.getBoard().getVersion();
+        if (version != publishedVersion) {
+            snapshot = GameSnapshot.of(engine.getBoard(), engine.getFrame());
+            publishedVersion = version;
+        }
+        boolean pending = snapshot.getVersion() != renderedVersion || continuousRender;
+        if (renderRequested) {
+            renderRequested = false;
+            pending = true;
+            force = true;
+        }
+        long now = System.nanoTime();
+        if (pending && (force || now - lastRenderNanos >= renderIntervalNanos)) {
+            renderedVersion = snapshot.getVersion();
+            lastRenderNanos = now;
+            renderer.accept(snapshot);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.tetris.controller;
+
+import com.tetris.db.ConnectionManager;
+import com.tetris.db.Database;
+import com.tetris.db.GameSession;
+import com.tetris.db.ReplayArchive;
+import com.tetris.db.ReplayRecord;
+import com.tetris.engine.GameEngine;
+import com.tetris.engine.Replay;
+import com.tetris.engine.ReplayKeyframes;
+import com.tetris.engine.ReplayPlayer;
+import com.tetris.model.Board;
+
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Auditoria em lote: reproduz sem interface todos os replays gravados (no {@link ReplayArchive}
+ * ou, para partidas antigas, no banco) e confere se pontuação, nível e linhas batem com o que
+ * foi registrado para a partida. Quando há keyframes, confere também que saltar direto para o
+ * fim a partir do último keyframe chega ao mesmo resultado.
+ * Os replays de cada página rodam em paralelo; no fim imprime quantos frames de jogo foram
+ * simulados por segundo e quantas vezes isso é mais rápido que o tempo real.
+ * <p>
+ * Uso: {@code java com.tetris.controller.ReplayAudit [tamanhoDaPágina]}
+ */
+public final class ReplayAudit {
+
+    private static final int DEFAULT_PAGE_SIZE = 500;
+
+    private ReplayAudit() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int pageSize = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PAGE_SIZE;
+        AtomicLong frames = new AtomicLong();
+        AtomicLong mismatches = new AtomicLong();
+        AtomicLong missing = new AtomicLong();
+        ReplayArchive archive = ReplayArchive.getDefault();
+        long games = 0;
+
+        long start = System.nanoTime();
+        long afterId = 0;
+        try {
+            while (true) {
+                List<ReplayRecord> page = Database.getReplayPage(afterId, pageSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                page.parallelStream().forEach(record -> {
+                    ReplayArchive.Entry entry = archive == null ? null : archive.get(record.session().id());
+                    if (entry == null && record.replay() == null) {
+                        missing.incrementAndGet();
+                        return;
+                    }
+                    String problem = entry != null
+                            ? audit(record.session(), entry.replay(), entry.keyframes(), frames)
+                            : audit(record.session(), ByteBuffer.wrap(record.replay()), null, frames);
+                    if (problem != null) {
+                        mismatches.incrementAndGet();
+                        System.out.println("Partida " + record.session().id() + ": " + problem);
+                    }
+                });
+                games += page.size();
+                afterId = page.get(page.size() - 1).session().id();
+            }
+        } finally {
+            ConnectionManager.getDefault().closeAll();
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        double seconds = elapsed / 1e9;
+        double gameSeconds = frames.get() / (double) GameEngine.FRAMES_PER_SECOND;
+        System.out.printf("%d partidas auditadas, %d divergentes, %d sem replay%n",
+                games - missing.get(), mismatches.get(), missing.get());
+        System.out.printf("%d frames em %.2f s: %.0f frames/s, %.0fx mais rápido que o tempo real%n",
+                frames.get(), seconds, frames.get() / seconds, gameSeconds / seconds);
+    }
+
+    /**
+     * Reproduz um replay e compara o resultado com o registro.
+     * @param keyframes keyframes da partida, ou null
+     * @return a descrição da divergência, ou null se a partida bate
+     */
+    static String audit(GameSession session, ByteBuffer data, ByteBuffer keyframes, AtomicLong frames) {
+        Replay replay;
+        try {
+            replay = Replay.decode(data);
+        } catch (IllegalArgumentException e) {
+            return "replay inválido (" + e.getMessage() + ")";
+        }
+        GameEngine engine = ReplayPlayer.playHeadless(replay);
+        frames.addAndGet(engine.getFrame());
+
+        Board board = engine.getBoard();
+        if (!board.isGameOver()) {
+            return "replay termina sem game over no frame " + engine.getFrame();
+        }
+        if (board.getScore() != session.score() || board.getLevel() != session.level()
+                || board.getLinesCleared() != session.linesCleared()) {
+            return String.format("registrado %d pontos/nível %d/%d linhas, replay %d/%d/%d",
+                    session.score(), session.level(), session.linesCleared(),
+                    board.getScore(), board.getLevel(), board.getLinesCleared());
+        }
+        if (keyframes != null) {
+            try {
+                ReplayPlayer player = new ReplayPlayer(replay, replay.newEngine());
+                player.start();
+                player.seek(replay.getEndFrame(), ReplayKeyframes.wrap(keyframes));
+                Board seeked = player.getEngine().getBoard();
+                if (seeked.getScore() != board.getScore() || player.getEngine().getFrame() != engine.getFrame()) {
+                    return "keyframes divergem da reprodução completa";
+                }
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                return "keyframes inválidos (" + e.getMessage() + ")";
+            }
+        }
+        return null;
+    }
+}
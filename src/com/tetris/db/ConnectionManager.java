@@ -0,0 +1,192 @@
+package com.tetris.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conexões do SQLite reaproveitadas por thread.
+ * Cada thread que acessa o banco (EDT, gravador de partidas) recebe uma única conexão, aberta
+ * na primeira vez e mantida aberta, com os PreparedStatements já compilados em cache
+ * (o SQL é analisado uma vez por conexão). Ao abrir, a conexão recebe os pragmas de desempenho
+ * (WAL, synchronous=NORMAL, mmap). Também mede o tempo de cada consulta, por nome.
+ */
+public final class ConnectionManager {
+
+    private static final long MMAP_SIZE = 64L * 1024 * 1024;
+    private static final int BUSY_TIMEOUT_MS = 5000;
+    private static final int SQLITE_BUSY = 5;
+
+    private static ConnectionManager instance;
+
+    private final String url;
+    private final ThreadLocal<ThreadConnection> local = new ThreadLocal<>();
+    private final Set<ThreadConnection> open = ConcurrentHashMap.newKeySet();
+    private final Map<String, QueryStats> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Operação JDBC medida por {@link #timed(String, SqlCall)}.
+     */
+    @FunctionalInterface
+    public interface SqlCall<T> {
+        T call(Connection connection) throws SQLException;
+    }
+
+    // Conexão de uma thread e seus statements compilados
+    private static final class ThreadConnection {
+        final Connection connection;
+        final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        ThreadConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        void close() {
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // a conexão vai ser fechada em seguida
+                }
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public ConnectionManager(String url) {
+        this.url = url;
+    }
+
+    /**
+     * Gerenciador do banco padrão (tetris.db). As conexões são fechadas pelo shutdown hook do
+     * {@link GameSessionWriter}, depois que as partidas pendentes forem gravadas.
+     */
+    public static synchronized ConnectionManager getDefault() {
+        if (instance == null) {
+            instance = new ConnectionManager(Database.URL);
+        }
+        return instance;
+    }
+
+    /**
+     * Conexão da thread atual (aberta e configurada na primeira chamada). Não deve ser fechada
+     * pelo chamador nem compartilhada com outras threads.
+     */
+    public Connection connection() throws SQLException {
+        return threadConnection().connection;
+    }
+
+    /**
+     * Statement compilado para o SQL na conexão da thread atual. Não deve ser fechado pelo chamador.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        ThreadConnection tc = threadConnection();
+        PreparedStatement statement = tc.statements.get(sql);
+        if (statement == null) {
+            statement = tc.connection.prepareStatement(sql);
+            tc.statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Executa a operação na conexão da thread atual e registra o tempo gasto sob o nome dado.
+     * Em caso de erro a conexão da thread é descartada (e reaberta na próxima chamada).
+     */
+    public <T> T timed(String name, SqlCall<T> call) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return call.call(connection());
+        } catch (SQLException e) {
+            invalidate();
+            throw e;
+        } finally {
+            metrics.computeIfAbsent(name, k -> new QueryStats()).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Se o erro é de banco ocupado (SQLITE_BUSY): outra conexão segurou a trava de escrita por mais
+     * que o busy_timeout, e a mesma operação pode ser repetida depois.
+     */
+    public static boolean isBusy(SQLException e) {
+        // O driver informa o código primário; os estendidos (SQLITE_BUSY_*) têm o primário no byte baixo
+        return (e.getErrorCode() & 0xFF) == SQLITE_BUSY;
+    }
+
+    /**
+     * Fecha e esquece a conexão da thread atual.
+     */
+    public void invalidate() {
+        ThreadConnection tc = local.get();
+        if (tc != null) {
+            local.remove();
+            open.remove(tc);
+            tc.close();
+        }
+    }
+
+    /**
+     * Fecha as conexões de todas as threads. Só deve ser chamado quando ninguém mais usa o banco
+     * (ao encerrar a aplicação).
+     */
+    public void closeAll() {
+        for (ThreadConnection tc : open) {
+            tc.close();
+        }
+        open.clear();
+    }
+
+    /**
+     * Tempos por consulta (cópia ordenada por nome).
+     */
+    public Map<String, QueryStats> getMetrics() {
+        return Collections.unmodifiableMap(new TreeMap<>(metrics));
+    }
+
+    public void printMetrics() {
+        System.out.println("=== Tempos do banco de dados ===");
+        for (Map.Entry<String, QueryStats> entry : getMetrics().entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+        }
+    }
+
+    private ThreadConnection threadConnection() throws SQLException {
+        ThreadConnection tc = local.get();
+        if (tc == null) {
+            tc = new ThreadConnection(open());
+            local.set(tc);
+            open.add(tc);
+        }
+        return tc;
+    }
+
+    private Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement stmt = connection.createStatement()) {
+            // WAL: leitores (histórico) não bloqueiam o gravador e vice-versa
+            stmt.execute("PRAGMA journal_mode=WAL");
+            // Em WAL, NORMAL só sincroniza no checkpoint: seguro contra corrupção, bem mais rápido que FULL
+            stmt.execute("PRAGMA synchronous=NORMAL");
+            stmt.execute("PRAGMA mmap_size=" + MMAP_SIZE);
+            stmt.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MS);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+}
@@ -1,13 +1,75 @@
 package com.tetris.db;
 
+import java.io.IOException;
 import java.sql.*;
 import java.time.ZonedDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Database {
-    private static final String URL = "jdbc:sqlite:tetris.db";
+    static final String URL = "jdbc:sqlite:tetris.db";
 
+    static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS game_session (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                player_name TEXT,
+                score INTEGER,
+                level INTEGER,
+                lines_cleared INTEGER,
+                date_time TEXT,
+                replay BLOB
+            );
+        """;
+
+    // Índices para as consultas paginadas: ranking por pontos, histórico por jogador e por data
+    private static final String[] CREATE_INDEX_SQL = {
+        "CREATE INDEX IF NOT EXISTS idx_game_session_score ON game_session (score DESC, id DESC)",
+        "CREATE INDEX IF NOT EXISTS idx_game_session_player ON game_session (player_name, id DESC)",
+        "CREATE INDEX IF NOT EXISTS idx_game_session_date ON game_session (date_time DESC, id DESC)"
+    };
+
+    static final String INSERT_SQL =
+            "INSERT INTO game_session (player_name, score, level, lines_cleared, date_time, replay) VALUES (?, ?, ?, ?, ?, ?)";
+    // Mesmo INSERT devolvendo o id gerado para a linha (o GameSessionWriter indexa os replays por ele)
+    static final String INSERT_RETURNING_ID_SQL = INSERT_SQL + " RETURNING id";
+    // Esvazia a coluna de uma partida cujo replay já está no ReplayArchive
+    static final String CLEAR_REPLAY_SQL = "UPDATE game_session SET replay = NULL WHERE id = ?";
+
+    // Bancos criados antes dos replays não têm a coluna
+    private static final String ADD_REPLAY_COLUMN_SQL = "ALTER TABLE game_session ADD COLUMN replay BLOB";
+
+    // Formato legível: yyyy-MM-dd HH:mm:ss
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+
+    private static final String SESSION_COLUMNS = "id, player_name, score, level, lines_cleared, date_time";
+    private static final String HISTORY_SQL =
+            "SELECT " + SESSION_COLUMNS + " FROM game_session ORDER BY id DESC";
+
+    // Paginação por chave (keyset): cada página começa depois da última linha da anterior,
+    // então o custo não cresce com a posição, ao contrário de OFFSET
+    private static final String HISTORY_PAGE_SQL =
+            "SELECT " + SESSION_COLUMNS + " FROM game_session WHERE id < ? ORDER BY id DESC LIMIT ?";
+    private static final String PLAYER_PAGE_SQL =
+            "SELECT " + SESSION_COLUMNS + " FROM game_session WHERE player_name = ? AND id < ? ORDER BY id DESC LIMIT ?";
+    private static final String TOP_SCORES_PAGE_SQL =
+            "SELECT " + SESSION_COLUMNS + " FROM game_session WHERE (score, id) < (?, ?) ORDER BY score DESC, id DESC LIMIT ?";
+
+    private static final String REPLAY_SQL = "SELECT replay FROM game_session WHERE id = ?";
+    // Partidas em ordem de id, para auditorias em lote (mesma paginação por chave do histórico);
+    // o replay vem da coluna (partidas antigas) ou do ReplayArchive
+    private static final String REPLAY_PAGE_SQL =
+            "SELECT " + SESSION_COLUMNS + ", replay FROM game_session WHERE id > ? ORDER BY id LIMIT ?";
+
+    /** Valor de "beforeId" para pedir a primeira página. */
+    public static final long FIRST_PAGE = Long.MAX_VALUE;
+
+    /**
+     * Abre uma conexão avulsa, que o chamador deve fechar. O próprio jogo usa as conexões
+     * reaproveitadas do {@link ConnectionManager}.
+     */
     public static Connection connect() {
         try {
             return DriverManager.getConnection(URL);
@@ -17,101 +79,268 @@ public class Database {
         }
     }
 
+    private static ConnectionManager manager() {
+        return ConnectionManager.getDefault();
+    }
+
     public static void createTable() {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS game_session (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                player_name TEXT,
-                score INTEGER,
-                level INTEGER,
-                lines_cleared INTEGER,
-                date_time TEXT
-            );
-        """;
-        try (Connection conn = connect()) {
-            if (conn == null) return;
-            try (Statement stmt = conn.createStatement()) {
-                stmt.execute(sql);
-            }
+        try {
+            manager().timed("createTable", conn -> {
+                createTable(conn);
+                return null;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
+    static void createTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_TABLE_SQL);
+            if (!hasColumn(stmt, "game_session", "replay")) {
+                stmt.execute(ADD_REPLAY_COLUMN_SQL);
+            }
+            for (String sql : CREATE_INDEX_SQL) {
+                stmt.execute(sql);
+            }
+        }
+        Leaderboard.createTable(conn);
+    }
+
+    private static boolean hasColumn(Statement stmt, String table, String column) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Grava uma partida de forma síncrona na conexão da thread atual, atualizando o ranking
+     * na mesma transação. O jogo usa o {@link GameSessionWriter}, que grava em segundo plano.
+     */
     public static void saveGame(String player, int score, int level, int lines) {
-        // Calcula a data/hora no fuso de Brasília (America/Sao_Paulo) e grava como texto
-        String sql = "INSERT INTO game_session (player_name, score, level, lines_cleared, date_time) VALUES (?, ?, ?, ?, ?)";
-        // Formato legível: yyyy-MM-dd HH:mm:ss
-        String dateTime = ZonedDateTime.now(ZoneId.of("America/Sao_Paulo")).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, player);
-            pstmt.setInt(2, score);
-            pstmt.setInt(3, level);
-            pstmt.setInt(4, lines);
-            pstmt.setString(5, dateTime);
-            pstmt.executeUpdate();
+        saveGame(player, score, level, lines, null);
+    }
+
+    /**
+     * Como {@link #saveGame(String, int, int, int)}, guardando também o replay da partida (pode ser null).
+     */
+    public static void saveGame(String player, int score, int level, int lines, byte[] replay) {
+        try {
+            manager().timed("saveGame", conn -> {
+                String dateTime = currentDateTime();
+                conn.setAutoCommit(false);
+                try {
+                    PreparedStatement insert = manager().prepare(INSERT_SQL);
+                    bindSession(insert, player, score, level, lines, dateTime, replay);
+                    insert.executeUpdate();
+                    PreparedStatement upsert = manager().prepare(Leaderboard.UPSERT_SQL);
+                    Leaderboard.bindUpdate(upsert, player, score, level, lines, dateTime);
+                    upsert.executeUpdate();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                return null;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
-    // 👇 INSIRA AQUI ESTE MÉTODO
+    static void bindSession(PreparedStatement pstmt, String player, int score, int level, int lines,
+                            String dateTime, byte[] replay) throws SQLException {
+        pstmt.setString(1, player);
+        pstmt.setInt(2, score);
+        pstmt.setInt(3, level);
+        pstmt.setInt(4, lines);
+        pstmt.setString(5, dateTime);
+        if (replay != null) {
+            pstmt.setBytes(6, replay);
+        } else {
+            pstmt.setNull(6, Types.BLOB);
+        }
+    }
+
+    // Calcula a data/hora no fuso de Brasília (America/Sao_Paulo) e grava como texto
+    static String currentDateTime() {
+        return ZonedDateTime.now(ZONE).format(DATE_TIME_FORMAT);
+    }
+
     public static void listGames() {
-        String sql = "SELECT player_name, score, level, lines_cleared, date_time FROM game_session ORDER BY id DESC";
-        try (Connection conn = connect()) {
-            if (conn == null) return;
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(sql)) {
+        System.out.println("\n=== Histórico de partidas ===");
+        for (String line : getGameHistory()) {
+            System.out.println(line);
+        }
+    }
 
-                System.out.println("\n=== Histórico de partidas ===");
-                while (rs.next()) {
-                    System.out.println(
-                        rs.getString("player_name") + " - " +
-                        rs.getInt("score") + " pontos, nível " +
-                        rs.getInt("level") + " (" + rs.getString("date_time") + ")"
-                    );
+    /**
+     * Retorna o histórico de partidas como uma lista de strings (cada entrada é uma linha formatada).
+     * Carrega a tabela inteira; para telas, prefira {@link #getGameHistoryPage(long, int)}.
+     */
+    public static List<String> getGameHistory() {
+        List<String> history = new ArrayList<>();
+        try {
+            manager().timed("getGameHistory", conn -> {
+                try (ResultSet rs = manager().prepare(HISTORY_SQL).executeQuery()) {
+                    while (rs.next()) {
+                        history.add(readSession(rs).toDisplayString());
+                    }
                 }
-            }
+                return null;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        return history;
     }
 
     /**
-     * Retorna o histórico de partidas como uma lista de strings (cada entrada é uma linha formatada).
+     * Página do histórico, da partida mais recente para a mais antiga.
+     * @param beforeId id da última partida da página anterior ({@link #FIRST_PAGE} para a primeira)
+     */
+    public static List<GameSession> getGameHistoryPage(long beforeId, int limit) throws SQLException {
+        return manager().timed("getGameHistoryPage", conn -> {
+            PreparedStatement pstmt = manager().prepare(HISTORY_PAGE_SQL);
+            pstmt.setLong(1, beforeId);
+            pstmt.setInt(2, limit);
+            return readSessions(pstmt, limit);
+        });
+    }
+
+    /**
+     * Página do histórico de um jogador, da partida mais recente para a mais antiga.
+     */
+    public static List<GameSession> getPlayerHistoryPage(String player, long beforeId, int limit) throws SQLException {
+        return manager().timed("getPlayerHistoryPage", conn -> {
+            PreparedStatement pstmt = manager().prepare(PLAYER_PAGE_SQL);
+            pstmt.setString(1, player);
+            pstmt.setLong(2, beforeId);
+            pstmt.setInt(3, limit);
+            return readSessions(pstmt, limit);
+        });
+    }
+
+    /**
+     * Página do ranking por pontuação (maior primeiro, empates pela partida mais recente).
+     * Para a primeira página use afterScore = Integer.MAX_VALUE e afterId = {@link #FIRST_PAGE};
+     * para as seguintes, a pontuação e o id da última partida recebida.
+     */
+    public static List<GameSession> getTopScoresPage(int afterScore, long afterId, int limit) throws SQLException {
+        return manager().timed("getTopScoresPage", conn -> {
+            PreparedStatement pstmt = manager().prepare(TOP_SCORES_PAGE_SQL);
+            pstmt.setInt(1, afterScore);
+            pstmt.setLong(2, afterId);
+            pstmt.setInt(3, limit);
+            return readSessions(pstmt, limit);
+        });
+    }
+
+    /**
+     * Replay gravado na coluna replay de uma partida, ou null se não houver
+     * (partidas novas guardam o replay no {@link ReplayArchive}).
      */
-    public static java.util.List<String> getGameHistory() {
-        java.util.List<String> history = new java.util.ArrayList<>();
-        String sql = "SELECT player_name, score, level, lines_cleared, date_time FROM game_session ORDER BY id DESC";
-        try (Connection conn = connect()) {
-            if (conn == null) return history;
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery(sql)) {
+    public static byte[] getReplay(long sessionId) throws SQLException {
+        return manager().timed("getReplay", conn -> {
+            PreparedStatement pstmt = manager().prepare(REPLAY_SQL);
+            pstmt.setLong(1, sessionId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getBytes(1) : null;
+            }
+        });
+    }
+
+    /**
+     * Página de partidas com a coluna replay (que pode ser null), em ordem crescente de id
+     * (para auditorias em lote).
+     * @param afterId id da última partida da página anterior (0 para a primeira)
+     */
+    public static List<ReplayRecord> getReplayPage(long afterId, int limit) throws SQLException {
+        return manager().timed("getReplayPage", conn -> {
+            PreparedStatement pstmt = manager().prepare(REPLAY_PAGE_SQL);
+            pstmt.setLong(1, afterId);
+            pstmt.setInt(2, limit);
+            List<ReplayRecord> records = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+            try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    String line = rs.getString("player_name") + " - " +
-                            rs.getInt("score") + " pontos, nível " +
-                            rs.getInt("level") + " (" + rs.getString("date_time") + ")";
-                    history.add(line);
+                    records.add(new ReplayRecord(readSession(rs), rs.getBytes("replay")));
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return records;
+        });
+    }
+
+    private static List<GameSession> readSessions(PreparedStatement pstmt, int limit) throws SQLException {
+        List<GameSession> sessions = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                sessions.add(readSession(rs));
+            }
         }
-        return history;
+        return sessions;
+    }
+
+    private static GameSession readSession(ResultSet rs) throws SQLException {
+        return new GameSession(
+                rs.getLong("id"),
+                rs.getString("player_name"),
+                rs.getInt("score"),
+                rs.getInt("level"),
+                rs.getInt("lines_cleared"),
+                rs.getString("date_time"));
     }
 
+    /**
+     * Apaga todas as partidas, o ranking e os replays do {@link ReplayArchive}.
+     * O contador de ids (sqlite_sequence) não é reiniciado: os ids indexam o arquivo de replays,
+     * e um id reaproveitado poderia apontar para o replay de uma partida apagada.
+     */
     public static void clearHistory() {
-        try (Connection conn = connect()) {
-            if (conn == null) return;
-            try (Statement stmt = conn.createStatement()) {
-                stmt.executeUpdate("DELETE FROM game_session");
-                stmt.executeUpdate("DELETE FROM sqlite_sequence WHERE name='game_session'");
-                System.out.println("Histórico limpo e contador de IDs reiniciado!");
+        ReplayArchive archive = ReplayArchive.getDefault();
+        try {
+            if (archive == null) {
+                deleteHistory(null);
+            } else {
+                // Sem o lock, um lote confirmado antes da limpeza teria os replays acrescentados depois dela
+                synchronized (archive) {
+                    deleteHistory(archive);
+                }
             }
+            System.out.println("Histórico e replays apagados!");
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
+    private static void deleteHistory(ReplayArchive archive) throws SQLException {
+        manager().timed("clearHistory", conn -> {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM game_session");
+                Leaderboard.clear(conn);
+                if (archive != null) {
+                    try {
+                        archive.clear();
+                    } catch (IOException e) {
+                        throw new SQLException("Erro ao apagar o arquivo de replays: " + e.getMessage(), e);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            return null;
+        });
+    }
+
 }
@@ -0,0 +1,20 @@
+package com.tetris.db;
+
+/**
+ * Uma partida gravada na tabela game_session.
+ */
+public record GameSession(
+    long id,
+    String playerName,
+    int score,
+    int level,
+    int linesCleared,
+    String dateTime
+) {
+    /**
+     * Mesmo texto usado pelo histórico em lista: "nome - pontos pontos, nível N (data)".
+     */
+    public String toDisplayString() {
+        return playerName + " - " + score + " pontos, nível " + level + " (" + dateTime + ")";
+    }
+}
@@ -0,0 +1,300 @@
+package com.tetris.db;
+
+import com.tetris.engine.Replay;
+import com.tetris.engine.ReplayKeyframes;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grava as partidas terminadas em segundo plano.
+ * Quem termina a partida só coloca o registro numa fila limitada (nunca espera pelo disco);
+ * uma thread dedicada usa sempre a mesma conexão (a sua, do {@link ConnectionManager}), junta o
+ * que estiver na fila e grava tudo numa única transação, junto com a atualização do ranking
+ * ({@link Leaderboard}).
+ * O esquema é criado uma vez, quando a thread inicia.
+ * Com um {@link ReplayArchive}, os replays (com keyframes) vão para o arquivo mapeado, indexados
+ * pelo id que o INSERT devolve para cada partida (RETURNING id). O replay também vai para a coluna
+ * replay na transação da partida e só é apagado dela depois que o arquivo foi sincronizado: se o
+ * acréscimo falhar (ou a aplicação cair antes), a coluna continua com o replay.
+ * O commit de um lote e o acréscimo dos seus replays acontecem sob o monitor do arquivo, o mesmo
+ * que {@link Database#clearHistory()} segura: a limpeza nunca fica entre os dois.
+ * Se o banco estiver ocupado por outra conexão (SQLITE_BUSY), o lote é mantido e gravado de novo,
+ * junto com as partidas que chegarem nesse meio tempo.
+ * Um shutdown hook grava o que ainda estiver na fila quando a aplicação fecha.
+ */
+public class GameSessionWriter implements Runnable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    private static final int MAX_BATCH = 256;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    // Registro pendente; a data/hora é a do fim da partida, não a da gravação
+    private record PendingSession(String player, int score, int level, int lines, String dateTime, byte[] replay) {}
+
+    private static GameSessionWriter instance;
+
+    private final ConnectionManager connections;
+    private final ReplayArchive archive; // null: replays gravados no próprio SQLite
+    private final BlockingQueue<PendingSession> queue;
+    private final List<PendingSession> batch = new ArrayList<>(MAX_BATCH);
+    private final long[] batchIds = new long[MAX_BATCH]; // id gerado para cada partida do lote
+    private final boolean[] archived = new boolean[MAX_BATCH]; // replay da partida acrescentado ao arquivo
+    private final Thread thread;
+    private volatile boolean closing;
+    private boolean schemaReady;
+    private long dropped;
+
+    public GameSessionWriter(ConnectionManager connections, int capacity) {
+        this(connections, null, capacity);
+    }
+
+    public GameSessionWriter(ConnectionManager connections, ReplayArchive archive, int capacity) {
+        this.connections = connections;
+        this.archive = archive;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this, "tetris-db-writer");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Writer do banco padrão (tetris.db) e do arquivo de replays padrão, iniciado na primeira
+     * chamada junto com o shutdown hook.
+     * O hook grava as partidas pendentes e só então fecha as conexões do {@link ConnectionManager}
+     * (com -Dtetris.dbMetrics=true imprime antes os tempos das consultas).
+     */
+    public static synchronized GameSessionWriter getDefault() {
+        if (instance == null) {
+            ConnectionManager connections = ConnectionManager.getDefault();
+            ReplayArchive archive = ReplayArchive.getDefault();
+            GameSessionWriter writer = new GameSessionWriter(connections, archive, DEFAULT_CAPACITY);
+            writer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                writer.close();
+                if (Boolean.getBoolean("tetris.dbMetrics")) {
+                    connections.printMetrics();
+                }
+                connections.closeAll();
+                if (archive != null) {
+                    archive.close();
+                }
+            }, "tetris-db-flush"));
+            instance = writer;
+        }
+        return instance;
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Enfileira uma partida para gravação. Nunca bloqueia: se a fila estiver cheia o registro é
+     * descartado (e contado).
+     * @param replay replay da partida (pode ser null); o array passa a pertencer ao writer
+     * @return false se o registro foi descartado
+     */
+    public boolean submit(String player, int score, int level, int lines, byte[] replay) {
+        if (closing) {
+            return false;
+        }
+        PendingSession session = new PendingSession(player, score, level, lines, Database.currentDateTime(), replay);
+        if (!queue.offer(session)) {
+            synchronized (this) {
+                dropped++;
+            }
+            System.err.println("GameSessionWriter: fila cheia, partida de " + player + " descartada");
+            return false;
+        }
+        return true;
+    }
+
+    public synchronized long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Grava o que ainda estiver na fila e fecha a conexão (espera no máximo alguns segundos).
+     * A thread não é interrompida: uma interrupção durante uma escrita fecharia o FileChannel do
+     * {@link ReplayArchive} (ClosedByInterruptException); ela nota o {@code closing} em até um poll.
+     */
+    public void close() {
+        closing = true;
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        ensureSchema();
+        while (!closing) {
+            try {
+                // Um lote mantido (banco ocupado) é gravado de novo sem esperar partidas novas
+                if (batch.isEmpty()) {
+                    PendingSession first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                }
+                queue.drainTo(batch, MAX_BATCH - batch.size());
+                writeBatch();
+            } catch (InterruptedException e) {
+                // close() não interrompe esta thread (ver lá); o laço só volta a checar o closing
+            }
+        }
+        while (queue.drainTo(batch, MAX_BATCH - batch.size()) > 0 || !batch.isEmpty()) {
+            writeBatch();
+        }
+        connections.invalidate();
+    }
+
+    // Cria a tabela uma única vez, na inicialização (ou no primeiro lote, se o banco estava indisponível)
+    private void ensureSchema() {
+        if (schemaReady) return;
+        try {
+            connections.timed("createTable", conn -> {
+                Database.createTable(conn);
+                return null;
+            });
+            schemaReady = true;
+        } catch (SQLException e) {
+            System.err.println("GameSessionWriter: não foi possível preparar o banco: " + e.getMessage());
+        }
+    }
+
+    // Grava o lote e o esvazia; com o banco ocupado ele é mantido para a próxima volta (exceto ao fechar)
+    private void writeBatch() {
+        ensureSchema();
+        boolean keep = false;
+        try {
+            if (archive == null) {
+                insertBatch();
+            } else {
+                // Commit e acréscimo sob o lock do arquivo: uma limpeza do histórico não cabe entre os dois
+                boolean archived;
+                synchronized (archive) {
+                    insertBatch();
+                    archived = archiveReplays();
+                }
+                if (archived) {
+                    clearArchivedReplays();
+                }
+            }
+        } catch (SQLException e) {
+            // A conexão foi descartada pelo ConnectionManager e é reaberta no próximo lote
+            keep = ConnectionManager.isBusy(e) && !closing;
+            System.err.println("GameSessionWriter: erro ao gravar " + batch.size() + " partida(s)"
+                    + (keep ? " (banco ocupado, nova tentativa): " : ": ") + e.getMessage());
+        } finally {
+            if (!keep) {
+                batch.clear();
+            }
+        }
+    }
+
+    // Partidas e ranking numa transação; guarda o id de cada partida em batchIds
+    private void insertBatch() throws SQLException {
+        connections.timed("insertBatch", conn -> {
+            conn.setAutoCommit(false);
+            try {
+                // Cada INSERT devolve o seu id: o UPSERT do ranking também gera rowids, então
+                // last_insert_rowid() não identifica as partidas
+                PreparedStatement insert = connections.prepare(Database.INSERT_RETURNING_ID_SQL);
+                PreparedStatement upsert = connections.prepare(Leaderboard.UPSERT_SQL);
+                for (int i = 0; i < batch.size(); i++) {
+                    PendingSession session = batch.get(i);
+                    Database.bindSession(insert, session.player(), session.score(), session.level(),
+                            session.lines(), session.dateTime(), session.replay());
+                    try (ResultSet rs = insert.executeQuery()) {
+                        batchIds[i] = rs.next() ? rs.getLong(1) : 0;
+                    }
+                    Leaderboard.bindUpdate(upsert, session.player(), session.score(), session.level(),
+                            session.lines(), session.dateTime());
+                    upsert.addBatch();
+                }
+                upsert.executeBatch();
+                conn.commit();
+                return null;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        });
+    }
+
+    /**
+     * Acrescenta ao arquivo os replays do lote, cada um com o id devolvido pelo seu INSERT, e
+     * sincroniza. Um replay que não pôde ser arquivado continua no banco.
+     * @return true se algum replay foi arquivado e pode ser apagado da coluna
+     */
+    private boolean archiveReplays() {
+        int count = 0;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                PendingSession session = batch.get(i);
+                archived[i] = false;
+                if (session.replay() == null || batchIds[i] <= 0) {
+                    continue;
+                }
+                try {
+                    byte[] keyframes = ReplayKeyframes.build(Replay.decode(session.replay()),
+                            ReplayKeyframes.DEFAULT_INTERVAL_FRAMES);
+                    archive.append(batchIds[i], session.replay(), keyframes);
+                    archived[i] = true;
+                    count++;
+                } catch (IllegalArgumentException e) {
+                    System.err.println("GameSessionWriter: replay da partida " + batchIds[i]
+                            + " mantido no banco: " + e.getMessage());
+                }
+            }
+            if (count == 0) {
+                return false;
+            }
+            archive.sync();
+            return true;
+        } catch (IOException e) {
+            System.err.println("GameSessionWriter: erro ao arquivar replays (mantidos no banco): " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Os replays já estão no arquivo (e no disco): a cópia na coluna deixa de ser necessária
+    private void clearArchivedReplays() {
+        try {
+            connections.timed("clearArchivedReplays", conn -> {
+                conn.setAutoCommit(false);
+                try {
+                    PreparedStatement clear = connections.prepare(Database.CLEAR_REPLAY_SQL);
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (archived[i]) {
+                            clear.setLong(1, batchIds[i]);
+                            clear.addBatch();
+                        }
+                    }
+                    clear.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            // Só sobra uma cópia a mais do replay na coluna; a leitura prefere o arquivo
+            System.err.println("GameSessionWriter: erro ao liberar replays arquivados: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.tetris.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranking e estatísticas por jogador, mantidos numa tabela agregada (player_stats).
+ * Cada partida gravada atualiza a linha do jogador na mesma transação do INSERT
+ * (um UPSERT), então ler o ranking nunca precisa varrer game_session: o top-N percorre
+ * apenas N entradas do índice por recorde, e o recorde geral é a primeira delas.
+ */
+public final class Leaderboard {
+
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS player_stats (
+                player_name TEXT PRIMARY KEY,
+                best_score INTEGER NOT NULL,
+                games_played INTEGER NOT NULL,
+                total_lines INTEGER NOT NULL,
+                total_level INTEGER NOT NULL,
+                last_played TEXT
+            );
+        """;
+
+    private static final String CREATE_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_player_stats_best ON player_stats (best_score DESC, player_name)";
+
+    // Preenche a tabela a partir do histórico já existente (bancos criados antes do ranking)
+    private static final String BACKFILL_SQL = """
+            INSERT OR IGNORE INTO player_stats
+                (player_name, best_score, games_played, total_lines, total_level, last_played)
+            SELECT player_name, MAX(score), COUNT(*), SUM(lines_cleared), SUM(level), MAX(date_time)
+            FROM game_session GROUP BY player_name
+        """;
+
+    static final String UPSERT_SQL = """
+            INSERT INTO player_stats
+                (player_name, best_score, games_played, total_lines, total_level, last_played)
+            VALUES (?, ?, 1, ?, ?, ?)
+            ON CONFLICT (player_name) DO UPDATE SET
+                best_score = MAX(best_score, excluded.best_score),
+                games_played = games_played + 1,
+                total_lines = total_lines + excluded.total_lines,
+                total_level = total_level + excluded.total_level,
+                last_played = excluded.last_played
+        """;
+
+    private static final String STATS_COLUMNS =
+            "player_name, best_score, games_played, total_lines, total_level, last_played";
+    private static final String TOP_PLAYERS_SQL =
+            "SELECT " + STATS_COLUMNS + " FROM player_stats ORDER BY best_score DESC, player_name LIMIT ?";
+    private static final String PLAYER_SQL =
+            "SELECT " + STATS_COLUMNS + " FROM player_stats WHERE player_name = ?";
+    private static final String BEST_SCORE_SQL =
+            "SELECT best_score FROM player_stats ORDER BY best_score DESC, player_name LIMIT 1";
+
+    private Leaderboard() {}
+
+    private static ConnectionManager manager() {
+        return ConnectionManager.getDefault();
+    }
+
+    static void createTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_TABLE_SQL);
+            stmt.execute(CREATE_INDEX_SQL);
+            boolean empty;
+            try (ResultSet rs = stmt.executeQuery("SELECT NOT EXISTS (SELECT 1 FROM player_stats)")) {
+                empty = rs.next() && rs.getBoolean(1);
+            }
+            if (empty) {
+                stmt.execute(BACKFILL_SQL);
+            }
+        }
+    }
+
+    static void bindUpdate(PreparedStatement pstmt, String player, int score, int level, int lines,
+                           String dateTime) throws SQLException {
+        pstmt.setString(1, player);
+        pstmt.setInt(2, score);
+        pstmt.setInt(3, lines);
+        pstmt.setInt(4, level);
+        pstmt.setString(5, dateTime);
+    }
+
+    static void clear(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM player_stats");
+        }
+    }
+
+    /**
+     * Os melhores jogadores por recorde (maior primeiro).
+     */
+    public static List<PlayerStats> getTopPlayers(int limit) throws SQLException {
+        return manager().timed("getTopPlayers", conn -> {
+            PreparedStatement pstmt = manager().prepare(TOP_PLAYERS_SQL);
+            pstmt.setInt(1, limit);
+            List<PlayerStats> players = new ArrayList<>(limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    players.add(readStats(rs));
+                }
+            }
+            return players;
+        });
+    }
+
+    /**
+     * Estatísticas de um jogador, ou null se ele ainda não jogou.
+     */
+    public static PlayerStats getPlayerStats(String player) throws SQLException {
+        return manager().timed("getPlayerStats", conn -> {
+            PreparedStatement pstmt = manager().prepare(PLAYER_SQL);
+            pstmt.setString(1, player);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? readStats(rs) : null;
+            }
+        });
+    }
+
+    /**
+     * Maior pontuação já registrada (0 se não houver partidas).
+     */
+    public static int getBestScore() throws SQLException {
+        return manager().timed("getBestScore", conn -> {
+            try (ResultSet rs = manager().prepare(BEST_SCORE_SQL).executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
+    }
+
+    private static PlayerStats readStats(ResultSet rs) throws SQLException {
+        int games = rs.getInt("games_played");
+        return new PlayerStats(
+                rs.getString("player_name"),
+                rs.getInt("best_score"),
+                games,
+                rs.getLong("total_lines"),
+                games == 0 ? 0 : rs.getLong("total_level") / (double) games,
+                rs.getString("last_played"));
+    }
+}
@@ -0,0 +1,25 @@
+package com.tetris.db;
+
+/**
+ * Estado que sobrevive entre execuções: recorde, preferências e último tema usado.
+ * Imutável; as alterações criam uma nova instância com os métodos with*.
+ */
+public record PersistedState(
+    int highScore,
+    boolean ghostPieceEnabled,
+    int themeIndex
+) {
+    public static final PersistedState DEFAULT = new PersistedState(0, true, 0);
+
+    public PersistedState withHighScore(int highScore) {
+        return new PersistedState(highScore, ghostPieceEnabled, themeIndex);
+    }
+
+    public PersistedState withGhostPieceEnabled(boolean ghostPieceEnabled) {
+        return new PersistedState(highScore, ghostPieceEnabled, themeIndex);
+    }
+
+    public PersistedState withThemeIndex(int themeIndex) {
+        return new PersistedState(highScore, ghostPieceEnabled, themeIndex);
+    }
+}
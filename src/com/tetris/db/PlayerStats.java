@@ -0,0 +1,13 @@
+package com.tetris.db;
+
+/**
+ * Estatísticas acumuladas de um jogador (uma linha da tabela player_stats).
+ */
+public record PlayerStats(
+    String playerName,
+    int bestScore,
+    int gamesPlayed,
+    long totalLines,
+    double averageLevel,
+    String lastPlayed
+) {}
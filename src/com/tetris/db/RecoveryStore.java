@@ -0,0 +1,155 @@
+package com.tetris.db;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arquivo de recuperação da partida em andamento: se o processo cair (ou o quiosque reiniciar),
+ * a partida volta de onde parou na próxima execução.
+ * O conteúdo é opaco para o store (o controller grava o snapshot da partida nele). Cada gravação
+ * substitui o arquivo de forma atômica ({@link AtomicFile}) numa thread própria; gravações em
+ * sequência são agrupadas e só a mais recente vai para o disco. Os bytes são copiados para um de
+ * dois buffers reaproveitados, então {@link #save(ByteBuffer)} não aloca no caso comum.
+ */
+public final class RecoveryStore {
+
+    public static final String DEFAULT_FILE = "tetris-recovery.bin";
+    private static final int INITIAL_CAPACITY = 8192;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private static RecoveryStore instance;
+
+    private final Path file;
+    private final ExecutorService executor;
+
+    // Guardados pelo monitor do store: o buffer que recebe a próxima gravação e o que está sendo gravado
+    private ByteBuffer pendingBuffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private boolean pending;
+
+    public RecoveryStore(Path file) {
+        this.file = file;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "tetris-recovery-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Store padrão (tetris-recovery.bin no diretório de trabalho).
+     * Um shutdown hook espera a última gravação pendente.
+     */
+    public static synchronized RecoveryStore getDefault() {
+        if (instance == null) {
+            RecoveryStore store = new RecoveryStore(Paths.get(DEFAULT_FILE));
+            Runtime.getRuntime().addShutdownHook(new Thread(store::close, "tetris-recovery-flush"));
+            instance = store;
+        }
+        return instance;
+    }
+
+    /**
+     * Agenda a gravação dos bytes entre a posição e o limite do buffer (que não é alterado).
+     * Retorna imediatamente; pode ser chamado de qualquer thread.
+     */
+    public void save(ByteBuffer data) {
+        boolean schedule;
+        synchronized (this) {
+            if (pendingBuffer.capacity() < data.remaining()) {
+                pendingBuffer = ByteBuffer.allocate(Math.max(data.remaining(), pendingBuffer.capacity() * 2));
+            }
+            pendingBuffer.clear();
+            pendingBuffer.put(data.duplicate()).flip();
+            schedule = !pending;
+            pending = true;
+        }
+        if (schedule) {
+            try {
+                executor.execute(this::writePending);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    pending = false;
+                }
+                System.err.println("RecoveryStore: aplicação encerrando, partida não gravada");
+            }
+        }
+    }
+
+    /**
+     * Apaga o arquivo de recuperação (a partida terminou). A remoção acontece depois das gravações
+     * já agendadas, e uma gravação ainda não iniciada é descartada.
+     */
+    public void clear() {
+        synchronized (this) {
+            pending = false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    System.err.println("RecoveryStore: erro ao apagar " + file + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            System.err.println("RecoveryStore: aplicação encerrando, arquivo de recuperação mantido");
+        }
+    }
+
+    /**
+     * Lê o arquivo de recuperação.
+     * @return o conteúdo da última gravação, ou null se não houver partida para recuperar
+     */
+    public ByteBuffer load() {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(file));
+        } catch (IOException e) {
+            System.err.println("RecoveryStore: erro ao ler " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Espera a gravação pendente terminar e encerra a thread de gravação.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Troca os buffers e grava o mais recente; quem chamar save() enquanto isso usa o outro buffer
+    private void writePending() {
+        ByteBuffer data;
+        synchronized (this) {
+            if (!pending) return;
+            pending = false;
+            data = pendingBuffer;
+            pendingBuffer = writeBuffer;
+            writeBuffer = data;
+        }
+        try {
+            AtomicFile.write(file, channel -> {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("RecoveryStore: erro ao gravar " + file + ": " + e.getMessage());
+        }
+    }
+}
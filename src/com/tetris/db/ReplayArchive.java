@@ -0,0 +1,331 @@
+package com.tetris.db;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Arquivo de replays só de acréscimo, fora do SQLite, para milhões de partidas.
+ * <p>
+ * São dois arquivos:
+ * <ul>
+ *   <li>dados (replays.dat): registros [id, tamanho do replay, tamanho dos keyframes, replay, keyframes],
+ *       sempre acrescentados no fim com o {@link FileChannel};</li>
+ *   <li>índice (replays.idx): uma entrada de 16 bytes por id de game_session, na posição id * 16,
+ *       com o deslocamento do registro nos dados e os dois tamanhos.</li>
+ * </ul>
+ * A leitura passa por {@link MappedByteBuffer}s em janelas de 1 GiB: achar um replay é ler uma
+ * entrada do índice por conta (O(1)) e o resultado são fatias do mapeamento, sem cópia e sem
+ * trazer nada para o heap. Um registro nunca cruza a fronteira de uma janela.
+ * Os arquivos crescem em blocos, e o fim dos dados fica gravado no cabeçalho; depois de uma queda,
+ * a abertura avança sobre os registros que o índice confirma.
+ * Acréscimos devem vir de uma única thread (o {@link GameSessionWriter}); leituras, de qualquer uma.
+ * O monitor da instância também serializa a gravação de um lote (commit das partidas e acréscimo
+ * dos seus replays) com a limpeza do histórico ({@link Database#clearHistory()}).
+ */
+public final class ReplayArchive {
+
+    public static final String DEFAULT_DATA_FILE = "replays.dat";
+    public static final String DEFAULT_INDEX_FILE = "replays.idx";
+
+    static final int WINDOW_BITS = 30;
+    static final long WINDOW_SIZE = 1L << WINDOW_BITS;
+
+    private static final int DATA_MAGIC = 0x54525041;  // "TRPA"
+    private static final int INDEX_MAGIC = 0x54525049; // "TRPI"
+    private static final int FORMAT_VERSION = 1;
+    // Cabeçalho dos dados: magic, versão, fim dos dados; no índice ele ocupa a entrada do id 0
+    private static final int HEADER_BYTES = 16;
+    private static final int DATA_END_OFFSET = 8;
+    private static final int ENTRY_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 16;
+    private static final long DATA_GROWTH = 64L << 20;
+    private static final long INDEX_GROWTH = 1L << 20;
+
+    private static ReplayArchive instance;
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private final Windows dataWindows;
+    private final Windows indexWindows;
+    private long dataEnd;
+
+    /**
+     * Replay arquivado: fatias somente leitura do mapeamento (válidas enquanto o arquivo existir).
+     */
+    public record Entry(long id, ByteBuffer replay, ByteBuffer keyframes) {}
+
+    public ReplayArchive(Path dataFile, Path indexFile) throws IOException {
+        data = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            dataEnd = openHeader(data, DATA_MAGIC, DATA_GROWTH);
+            openHeader(index, INDEX_MAGIC, INDEX_GROWTH);
+        } catch (IOException e) {
+            data.close();
+            index.close();
+            throw e;
+        }
+        dataWindows = new Windows(data);
+        indexWindows = new Windows(index);
+        recoverDataEnd();
+    }
+
+    /**
+     * Arquivo padrão (replays.dat/replays.idx no diretório de trabalho), ou null se não puder ser aberto.
+     */
+    public static synchronized ReplayArchive getDefault() {
+        if (instance == null) {
+            try {
+                instance = new ReplayArchive(Paths.get(DEFAULT_DATA_FILE), Paths.get(DEFAULT_INDEX_FILE));
+            } catch (IOException e) {
+                System.err.println("ReplayArchive: não foi possível abrir o arquivo de replays: " + e.getMessage());
+                return null;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Acrescenta o replay (e os keyframes) de uma partida. Se o id já existir, a entrada passa
+     * a apontar para o registro novo.
+     */
+    public synchronized void append(long id, byte[] replay, byte[] keyframes) throws IOException {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Id de partida inválido: " + id);
+        }
+        long length = (long) RECORD_HEADER_BYTES + replay.length + keyframes.length;
+        if (length > WINDOW_SIZE) {
+            throw new IllegalArgumentException("Replay grande demais para o arquivo: " + length + " bytes");
+        }
+        long offset = dataEnd;
+        if (offset >>> WINDOW_BITS != (offset + length - 1) >>> WINDOW_BITS) {
+            offset = ((offset >>> WINDOW_BITS) + 1) << WINDOW_BITS;
+        }
+        ensureSize(data, offset + length, DATA_GROWTH);
+
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        header.putLong(id).putInt(replay.length).putInt(keyframes.length).flip();
+        writeFully(data, new ByteBuffer[] {header, ByteBuffer.wrap(replay), ByteBuffer.wrap(keyframes)}, offset);
+
+        // O índice só aponta para o registro depois que ele foi escrito
+        long entryOffset = id * ENTRY_BYTES;
+        ensureSize(index, entryOffset + ENTRY_BYTES, INDEX_GROWTH);
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+        entry.putLong(offset).putInt(replay.length).putInt(keyframes.length).flip();
+        writeFully(index, new ByteBuffer[] {entry}, entryOffset);
+
+        dataEnd = offset + length;
+        ByteBuffer end = ByteBuffer.allocate(Long.BYTES);
+        end.putLong(dataEnd).flip();
+        writeFully(data, new ByteBuffer[] {end}, DATA_END_OFFSET);
+    }
+
+    /**
+     * Força os acréscimos para o disco (dados antes do índice).
+     */
+    public synchronized void sync() throws IOException {
+        data.force(false);
+        index.force(false);
+    }
+
+    /**
+     * Apaga todos os replays (o histórico foi limpo). Só o índice é zerado, antes de o fim dos
+     * dados voltar ao cabeçalho: os registros antigos continuam no arquivo, mas nem a leitura nem a
+     * recuperação aceitam um registro que o índice não confirma (e os ids não se repetem).
+     * Os arquivos mantêm o tamanho (as janelas mapeadas continuam válidas) e o espaço é
+     * reaproveitado pelos próximos acréscimos.
+     */
+    public synchronized void clear() throws IOException {
+        zero(index, HEADER_BYTES, index.size());
+        index.force(false);
+        dataEnd = HEADER_BYTES;
+        ByteBuffer header = ByteBuffer.allocate(Long.BYTES);
+        header.putLong(dataEnd).flip();
+        writeFully(data, new ByteBuffer[] {header}, DATA_END_OFFSET);
+        data.force(false);
+    }
+
+    /**
+     * Replay arquivado de uma partida, ou null se o id não estiver no arquivo.
+     */
+    public Entry get(long id) {
+        if (id <= 0) {
+            return null;
+        }
+        ByteBuffer entry = indexWindows.slice(id * ENTRY_BYTES, ENTRY_BYTES);
+        if (entry == null) {
+            return null;
+        }
+        long offset = entry.getLong(0);
+        int replayLength = entry.getInt(8);
+        int keyframesLength = entry.getInt(12);
+        if (offset < HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer record = dataWindows.slice(offset, RECORD_HEADER_BYTES + replayLength + keyframesLength);
+        // O cabeçalho do registro confirma a entrada (protege contra um índice gravado antes dos dados)
+        if (record == null || record.getLong(0) != id || record.getInt(8) != replayLength
+                || record.getInt(12) != keyframesLength) {
+            return null;
+        }
+        return new Entry(id,
+                record.slice(RECORD_HEADER_BYTES, replayLength),
+                record.slice(RECORD_HEADER_BYTES + replayLength, keyframesLength));
+    }
+
+    /**
+     * Maior id que o índice comporta hoje (os ids acima dele certamente não estão no arquivo).
+     */
+    public long maxId() throws IOException {
+        return index.size() / ENTRY_BYTES - 1;
+    }
+
+    public synchronized long getDataBytes() {
+        return dataEnd;
+    }
+
+    public synchronized void close() {
+        try {
+            data.close();
+            index.close();
+        } catch (IOException e) {
+            System.err.println("ReplayArchive: erro ao fechar: " + e.getMessage());
+        }
+    }
+
+    // Cria o cabeçalho num arquivo novo ou valida o existente; retorna o fim dos dados gravado
+    private static long openHeader(FileChannel channel, int magic, long growth) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (channel.size() == 0) {
+            header.putInt(magic).putInt(FORMAT_VERSION).putLong(HEADER_BYTES).flip();
+            writeFully(channel, new ByteBuffer[] {header}, 0);
+            ensureSize(channel, HEADER_BYTES, growth);
+            return HEADER_BYTES;
+        }
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // lê o cabeçalho inteiro
+        }
+        if (header.position() < HEADER_BYTES || header.getInt(0) != magic) {
+            throw new IOException("Arquivo de replays inválido");
+        }
+        if (header.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Versão do arquivo de replays não suportada: " + header.getInt(4));
+        }
+        return Math.max(HEADER_BYTES, header.getLong(DATA_END_OFFSET));
+    }
+
+    // Depois de uma queda o fim gravado pode estar atrasado: avança sobre os registros que o índice confirma
+    private void recoverDataEnd() throws IOException {
+        long size = data.size();
+        while (dataEnd + RECORD_HEADER_BYTES <= size) {
+            ByteBuffer header = dataWindows.slice(dataEnd, RECORD_HEADER_BYTES);
+            if (header != null && isIndexed(header.getLong(0), dataEnd)) {
+                dataEnd += RECORD_HEADER_BYTES + header.getInt(8) + header.getInt(12);
+                continue;
+            }
+            // Pode ser o espaço deixado para um registro não cruzar a janela: tenta a janela seguinte
+            long next = ((dataEnd >>> WINDOW_BITS) + 1) << WINDOW_BITS;
+            ByteBuffer nextHeader = next + RECORD_HEADER_BYTES <= size
+                    ? dataWindows.slice(next, RECORD_HEADER_BYTES) : null;
+            if (header == null || header.getLong(0) != 0 || nextHeader == null
+                    || !isIndexed(nextHeader.getLong(0), next)) {
+                break;
+            }
+            dataEnd = next;
+        }
+    }
+
+    // A entrada do índice para o id aponta para este deslocamento
+    private boolean isIndexed(long id, long offset) {
+        if (id <= 0) {
+            return false;
+        }
+        ByteBuffer entry = indexWindows.slice(id * ENTRY_BYTES, ENTRY_BYTES);
+        return entry != null && entry.getLong(0) == offset;
+    }
+
+    // Cresce o arquivo em blocos (os bytes novos são zeros) para as janelas mapeadas raramente mudarem
+    private static void ensureSize(FileChannel channel, long required, long growth) throws IOException {
+        long size = channel.size();
+        if (size >= required) {
+            return;
+        }
+        long newSize = (required + growth - 1) / growth * growth;
+        ByteBuffer zero = ByteBuffer.allocate(1);
+        writeFully(channel, new ByteBuffer[] {zero}, newSize - 1);
+    }
+
+    private static void zero(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer zeros = ByteBuffer.allocate((int) Math.min(Math.max(to - from, 0), 1 << 20));
+        for (long position = from; position < to; position += zeros.capacity()) {
+            zeros.clear().limit((int) Math.min(zeros.capacity(), to - position));
+            writeFully(channel, new ByteBuffer[] {zeros}, position);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer[] buffers, long position) throws IOException {
+        for (ByteBuffer buffer : buffers) {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+    }
+
+    /**
+     * Janelas de até 1 GiB mapeadas sob demanda; uma janela é remapeada só quando o arquivo cresce
+     * além do trecho já mapeado.
+     */
+    private static final class Windows {
+        private final FileChannel channel;
+        private MappedByteBuffer[] windows = new MappedByteBuffer[1];
+
+        Windows(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Fatia somente leitura [offset, offset + length), ou null se estiver além do fim do arquivo.
+         * Deslocamentos vêm também de bytes não confirmados (na recuperação), então qualquer valor é aceito.
+         */
+        ByteBuffer slice(long offset, int length) {
+            int start = (int) (offset & (WINDOW_SIZE - 1));
+            if (offset < 0 || offset >>> WINDOW_BITS > Integer.MAX_VALUE
+                    || length < 0 || start + (long) length > WINDOW_SIZE) {
+                return null;
+            }
+            ByteBuffer buffer = window((int) (offset >>> WINDOW_BITS), start + length);
+            return buffer == null ? null : buffer.slice(start, length);
+        }
+
+        private synchronized ByteBuffer window(int window, int required) {
+            MappedByteBuffer buffer = window < windows.length ? windows[window] : null;
+            if (buffer != null && buffer.capacity() >= required) {
+                return buffer;
+            }
+            try {
+                long start = (long) window << WINDOW_BITS;
+                long available = Math.min(WINDOW_SIZE, channel.size() - start);
+                if (available < required) {
+                    return null;
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, available);
+                // Só cresce a tabela para janelas que existem no arquivo
+                if (window >= windows.length) {
+                    MappedByteBuffer[] grown = new MappedByteBuffer[Math.max(window + 1, windows.length * 2)];
+                    System.arraycopy(windows, 0, grown, 0, windows.length);
+                    windows = grown;
+                }
+                windows[window] = buffer;
+                return buffer;
+            } catch (IOException e) {
+                System.err.println("ReplayArchive: erro ao mapear o arquivo: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
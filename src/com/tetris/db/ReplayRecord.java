@@ -0,0 +1,10 @@
+package com.tetris.db;
+
+/**
+ * Uma partida gravada junto com os bytes da coluna replay (null se o replay estiver no
+ * {@link ReplayArchive} ou não existir).
+ */
+public record ReplayRecord(
+    GameSession session,
+    byte[] replay
+) {}
@@ -0,0 +1,179 @@
+package com.tetris.db;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Guarda o {@link PersistedState} num arquivo de propriedades, sem bloquear quem altera o estado.
+ * Cada gravação substitui o arquivo de forma atômica ({@link AtomicFile}): uma queda no meio da
+ * gravação deixa o arquivo anterior intacto, nunca um arquivo pela metade.
+ * As gravações rodam numa thread própria e são agrupadas (só o estado mais recente é gravado).
+ * Na primeira execução o recorde é migrado do antigo highscore.txt.
+ */
+public final class StateStore {
+
+    public static final String DEFAULT_FILE = "tetris-state.properties";
+    private static final String LEGACY_HIGHSCORE_FILE = "highscore.txt";
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private static StateStore instance;
+
+    private final Path file;
+    private final Path legacyHighScoreFile;
+    private final AtomicReference<PersistedState> current = new AtomicReference<>(PersistedState.DEFAULT);
+    private final AtomicReference<PersistedState> pending = new AtomicReference<>();
+    private final ExecutorService executor;
+
+    public StateStore(Path file, Path legacyHighScoreFile) {
+        this.file = file;
+        this.legacyHighScoreFile = legacyHighScoreFile;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "tetris-state-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Store padrão (tetris-state.properties no diretório de trabalho), já carregado.
+     * Um shutdown hook espera a última gravação pendente.
+     */
+    public static synchronized StateStore getDefault() {
+        if (instance == null) {
+            StateStore store = new StateStore(Paths.get(DEFAULT_FILE), Paths.get(LEGACY_HIGHSCORE_FILE));
+            store.load();
+            Runtime.getRuntime().addShutdownHook(new Thread(store::close, "tetris-state-flush"));
+            instance = store;
+        }
+        return instance;
+    }
+
+    public PersistedState get() {
+        return current.get();
+    }
+
+    /**
+     * Aplica a alteração ao estado em memória e agenda a gravação (se algo mudou).
+     * Retorna imediatamente; pode ser chamado de qualquer thread.
+     */
+    public PersistedState update(UnaryOperator<PersistedState> change) {
+        PersistedState previous;
+        PersistedState next;
+        do {
+            previous = current.get();
+            next = change.apply(previous);
+        } while (!current.compareAndSet(previous, next));
+        if (!next.equals(previous)) {
+            schedule(next);
+        }
+        return next;
+    }
+
+    /**
+     * Lê o arquivo de estado (ou migra o highscore.txt, se o arquivo ainda não existir).
+     */
+    public void load() {
+        if (Files.exists(file)) {
+            current.set(read());
+            return;
+        }
+        if (Files.exists(legacyHighScoreFile)) {
+            int highScore = readLegacyHighScore();
+            System.out.println("StateStore: recorde " + highScore + " migrado de " + legacyHighScoreFile);
+            update(state -> state.withHighScore(highScore));
+        }
+    }
+
+    /**
+     * Espera a gravação pendente terminar e encerra a thread de gravação.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Só agenda uma tarefa se não houver outra esperando; ela grava o estado mais recente
+    private void schedule(PersistedState state) {
+        if (pending.getAndSet(state) == null) {
+            try {
+                executor.execute(this::writePending);
+            } catch (RejectedExecutionException e) {
+                pending.set(null);
+                System.err.println("StateStore: aplicação encerrando, estado não gravado");
+            }
+        }
+    }
+
+    private void writePending() {
+        PersistedState state = pending.getAndSet(null);
+        if (state == null) return;
+        try {
+            write(state);
+        } catch (IOException e) {
+            System.err.println("StateStore: erro ao gravar " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void write(PersistedState state) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("highScore", Integer.toString(state.highScore()));
+        properties.setProperty("ghostPieceEnabled", Boolean.toString(state.ghostPieceEnabled()));
+        properties.setProperty("themeIndex", Integer.toString(state.themeIndex()));
+
+        AtomicFile.write(file, channel -> {
+            OutputStream out = Channels.newOutputStream(channel);
+            properties.store(out, "Tetris - estado salvo");
+            out.flush();
+        });
+    }
+
+    private PersistedState read() {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("StateStore: erro ao ler " + file + ": " + e.getMessage());
+            return PersistedState.DEFAULT;
+        }
+        PersistedState defaults = PersistedState.DEFAULT;
+        return new PersistedState(
+                parseInt(properties.getProperty("highScore"), defaults.highScore()),
+                Boolean.parseBoolean(properties.getProperty("ghostPieceEnabled",
+                        Boolean.toString(defaults.ghostPieceEnabled()))),
+                parseInt(properties.getProperty("themeIndex"), defaults.themeIndex()));
+    }
+
+    private int readLegacyHighScore() {
+        try (BufferedReader reader = Files.newBufferedReader(legacyHighScoreFile)) {
+            return parseInt(reader.readLine(), 0);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static int parseInt(String value, int fallback) {
+        if (value == null) return fallback;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
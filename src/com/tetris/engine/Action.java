@@ -0,0 +1,8 @@
+package com.tetris.engine;
+
+/**
+ * Ações do jogador aceitas pelo motor de jogo, independentes de teclado ou AWT.
+ */
+public enum Action {
+    MOVE_LEFT, MOVE_RIGHT, SOFT_DROP, ROTATE_RIGHT, ROTATE_LEFT, HARD_DROP, PAUSE, TOGGLE_GHOST
+}
@@ -0,0 +1,347 @@
+package com.tetris.engine;
+
+import com.tetris.model.Board;
+import com.tetris.model.GeneratorMode;
+import com.tetris.model.PieceGenerator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Motor de jogo headless e determinístico sobre o {@link Board}.
+ * Não depende de AWT nem de Swing: o tempo avança em frames discretos com {@link #tick()}
+ * e as entradas chegam como {@link Action} via {@link #step(Action)}.
+ * Dada a mesma semente e a mesma sequência de ações por frame, a partida é sempre idêntica.
+ * <p>
+ * Teclas mantidas pressionadas são tratadas pelo próprio motor ({@link #press(Action)} e
+ * {@link #release(Action)}), com DAS/ARR configuráveis em frames, sem depender da repetição
+ * de teclas do sistema operacional.
+ * <p>
+ * Com um {@link ReplayRecorder} ligado ({@link #setRecorder}), cada partida grava a semente e as
+ * teclas efetivamente aplicadas, por frame; o {@link ReplayPlayer} reproduz a partida a partir disso.
+ */
+public class GameEngine {
+
+    public static final int FRAMES_PER_SECOND = 60;
+
+    // Gravidade em ponto fixo: GRAVITY_ONE equivale a uma linha por frame
+    public static final int GRAVITY_ONE = 1 << 16;
+
+    private static final int INITIAL_DELAY_MS = 400;
+    private static final int DELAY_STEP_MS = 30;
+    private static final int MIN_DELAY_MS = 100;
+
+    // Auto-repeat padrão: 10 frames (~167ms) até repetir, depois uma repetição a cada 2 frames
+    public static final int DEFAULT_DAS_FRAMES = 10;
+    public static final int DEFAULT_ARR_FRAMES = 2;
+
+    private static final Action[] ACTIONS = Action.values();
+
+    private final PieceGenerator generator;
+    private final Board board;
+
+    private long seed;
+    private long frame;
+    private int gravityAccumulator;
+
+    // --- Estado das teclas mantidas (DAS/ARR) ---
+    private int dasFrames = DEFAULT_DAS_FRAMES;
+    private int arrFrames = DEFAULT_ARR_FRAMES;
+    private boolean leftHeld;
+    private boolean rightHeld;
+    private boolean softDropHeld;
+    private Action shiftAction; // direção horizontal ativa (a última pressionada ainda mantida)
+    private int shiftFrames;
+    private int softDropFrames;
+
+    private ReplayRecorder recorder;
+
+    public GameEngine(long seed) {
+        this(GeneratorMode.CLASSIC, seed);
+    }
+
+    public GameEngine(GeneratorMode mode, long seed) {
+        this(mode.create(seed), seed);
+    }
+
+    public GameEngine(PieceGenerator generator, long seed) {
+        this.generator = generator;
+        this.board = new Board(generator);
+        this.seed = seed;
+    }
+
+    /**
+     * Motor sobre um Board já existente (ex: o do jogo com interface), usando o gerador do próprio Board.
+     */
+    public GameEngine(Board board, long seed) {
+        this.generator = board.getPieceGenerator();
+        this.board = board;
+        this.seed = seed;
+    }
+
+    /**
+     * Inicia uma nova partida com a semente atual.
+     */
+    public void start() {
+        start(seed);
+    }
+
+    /**
+     * Inicia uma nova partida com a semente informada.
+     */
+    public void start(long seed) {
+        this.seed = seed;
+        generator.reset(seed);
+        frame = 0;
+        gravityAccumulator = 0;
+        leftHeld = rightHeld = softDropHeld = false;
+        shiftAction = null;
+        if (recorder != null) {
+            recorder.begin(GeneratorMode.of(generator), seed, dasFrames, arrFrames);
+        }
+        board.start();
+    }
+
+    /**
+     * Configura o auto-repeat das teclas mantidas.
+     * @param dasFrames frames entre pressionar e começar a repetir (Delayed Auto Shift)
+     * @param arrFrames frames entre repetições (Auto Repeat Rate); 0 leva a peça direto à parede
+     */
+    public void setAutoRepeat(int dasFrames, int arrFrames) {
+        this.dasFrames = Math.max(0, dasFrames);
+        this.arrFrames = Math.max(0, arrFrames);
+    }
+
+    public int getDasFrames() { return dasFrames; }
+    public int getArrFrames() { return arrFrames; }
+
+    /**
+     * Liga (ou desliga, com null) a gravação de replays; vale a partir da próxima partida.
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Tecla pressionada. Repetições do sistema operacional para uma tecla já mantida são ignoradas.
+     */
+    public void press(Action action) {
+        switch (action) {
+            case MOVE_LEFT:
+                if (leftHeld) return;
+                record(action, true);
+                leftHeld = true;
+                startShift(Action.MOVE_LEFT);
+                break;
+            case MOVE_RIGHT:
+                if (rightHeld) return;
+                record(action, true);
+                rightHeld = true;
+                startShift(Action.MOVE_RIGHT);
+                break;
+            case SOFT_DROP:
+                if (softDropHeld) return;
+                record(action, true);
+                softDropHeld = true;
+                softDropFrames = 0;
+                step(Action.SOFT_DROP);
+                break;
+            default:
+                record(action, true);
+                step(action);
+                break;
+        }
+    }
+
+    /**
+     * Tecla solta. Se a outra direção continuar mantida, ela volta a valer, reiniciando o DAS.
+     */
+    public void release(Action action) {
+        switch (action) {
+            case MOVE_LEFT:
+                if (!leftHeld) return;
+                record(action, false);
+                leftHeld = false;
+                if (shiftAction == Action.MOVE_LEFT) {
+                    shiftAction = rightHeld ? Action.MOVE_RIGHT : null;
+                    shiftFrames = 0;
+                }
+                break;
+            case MOVE_RIGHT:
+                if (!rightHeld) return;
+                record(action, false);
+                rightHeld = false;
+                if (shiftAction == Action.MOVE_RIGHT) {
+                    shiftAction = leftHeld ? Action.MOVE_LEFT : null;
+                    shiftFrames = 0;
+                }
+                break;
+            case SOFT_DROP:
+                if (!softDropHeld) return;
+                record(action, false);
+                softDropHeld = false;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void record(Action action, boolean pressed) {
+        if (recorder != null) {
+            recorder.record(frame, action, pressed);
+        }
+    }
+
+    private void startShift(Action direction) {
+        shiftAction = direction;
+        shiftFrames = 0;
+        step(direction);
+    }
+
+    /**
+     * Aplica uma ação do jogador ao estado atual.
+     */
+    public void step(Action action) {
+        if (action == Action.TOGGLE_GHOST) {
+            board.toggleGhostPiece();
+            return;
+        }
+        if (!isRunning() && !(action == Action.PAUSE && board.isStarted() && !board.isGameOver())) {
+            return;
+        }
+
+        switch (action) {
+            case MOVE_LEFT:
+                board.moveLeft();
+                break;
+            case MOVE_RIGHT:
+                board.moveRight();
+                break;
+            case SOFT_DROP:
+                board.movePieceDown();
+                break;
+            case ROTATE_RIGHT:
+                board.rotateRight();
+                break;
+            case ROTATE_LEFT:
+                board.rotateLeft();
+                break;
+            case HARD_DROP:
+                board.dropDown();
+                break;
+            case PAUSE:
+                board.togglePause();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Avança um frame: aplica a gravidade acumulada do nível atual.
+     */
+    public void tick() {
+        frame++;
+        if (!isRunning()) {
+            return;
+        }
+
+        autoRepeat();
+        if (!isRunning()) {
+            return;
+        }
+
+        gravityAccumulator += gravityForLevel(board.getLevel());
+        while (gravityAccumulator >= GRAVITY_ONE && isRunning()) {
+            gravityAccumulator -= GRAVITY_ONE;
+            board.movePieceDown();
+        }
+    }
+
+    private void autoRepeat() {
+        if (shiftAction != null) {
+            shiftFrames++;
+            if (shiftFrames >= dasFrames) {
+                if (arrFrames == 0) {
+                    for (int i = 0; i < Board.BOARD_WIDTH; i++) {
+                        step(shiftAction);
+                    }
+                } else if ((shiftFrames - dasFrames) % arrFrames == 0) {
+                    step(shiftAction);
+                }
+            }
+        }
+        if (softDropHeld) {
+            softDropFrames++;
+            if (softDropFrames % Math.max(1, arrFrames) == 0) {
+                step(Action.SOFT_DROP);
+            }
+        }
+    }
+
+    /**
+     * Executa frames até o fim da partida ou até o limite informado.
+     * @return número de frames executados
+     */
+    public long runUntilGameOver(long maxFrames) {
+        long start = frame;
+        while (!board.isGameOver() && frame - start < maxFrames) {
+            tick();
+        }
+        return frame - start;
+    }
+
+    /**
+     * Grava o estado completo do motor e do Board (keyframe de replay): restaurado em outro motor
+     * com o mesmo modo de gerador, a partida continua exatamente igual a partir deste frame.
+     */
+    public void writeState(ByteBuffer out) {
+        out.putLong(seed).putLong(frame).putInt(gravityAccumulator);
+        out.putInt(dasFrames).putInt(arrFrames);
+        out.put((byte) ((leftHeld ? 1 : 0) | (rightHeld ? 2 : 0) | (softDropHeld ? 4 : 0)));
+        out.put((byte) (shiftAction == null ? -1 : shiftAction.ordinal()));
+        out.putInt(shiftFrames).putInt(softDropFrames);
+        board.writeState(out);
+    }
+
+    /**
+     * Restaura um estado gravado por {@link #writeState(ByteBuffer)}.
+     */
+    public void readState(ByteBuffer in) {
+        seed = in.getLong();
+        frame = in.getLong();
+        gravityAccumulator = in.getInt();
+        dasFrames = in.getInt();
+        arrFrames = in.getInt();
+        int held = in.get();
+        leftHeld = (held & 1) != 0;
+        rightHeld = (held & 2) != 0;
+        softDropHeld = (held & 4) != 0;
+        int shift = in.get();
+        if (shift >= ACTIONS.length || dasFrames < 0 || arrFrames < 0) {
+            throw new IllegalArgumentException("Estado de auto-repeat inválido");
+        }
+        shiftAction = shift < 0 ? null : ACTIONS[shift];
+        shiftFrames = in.getInt();
+        softDropFrames = in.getInt();
+        board.readState(in);
+    }
+
+    public boolean isRunning() {
+        return board.isStarted() && !board.isPaused() && !board.isGameOver();
+    }
+
+    /**
+     * Linhas por frame (em unidades de 1/GRAVITY_ONE) para o nível.
+     * Equivale ao atraso original do Timer: 400ms no nível 1, 30ms a menos por nível, mínimo de 100ms.
+     */
+    public static int gravityForLevel(int level) {
+        int delayMs = Math.max(MIN_DELAY_MS, INITIAL_DELAY_MS - (level - 1) * DELAY_STEP_MS);
+        long framesPerRow = (long) delayMs * FRAMES_PER_SECOND;
+        // Arredonda para cima para que a cadência não fique um frame mais lenta que o atraso original
+        return (int) (((long) GRAVITY_ONE * 1000 + framesPerRow - 1) / framesPerRow);
+    }
+
+    public Board getBoard() { return board; }
+    public long getSeed() { return seed; }
+    public long getFrame() { return frame; }
+}
@@ -0,0 +1,71 @@
+package com.tetris.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila circular lock-free de eventos de input, com um único produtor (a thread do listener
+ * de teclado) e um único consumidor (a thread do game loop).
+ * Cada evento guarda a ação, se foi pressionada ou solta, e o instante (System.nanoTime)
+ * em que foi capturado. Nenhuma alocação acontece ao publicar ou consumir eventos.
+ */
+public final class InputQueue {
+
+    /**
+     * Recebe os eventos drenados da fila, na ordem em que foram publicados.
+     */
+    public interface Sink {
+        void accept(Action action, boolean pressed, long timestampNanos);
+    }
+
+    private static final Action[] ACTIONS = Action.values();
+
+    private final int mask;
+    private final byte[] codes;
+    private final long[] timestamps;
+
+    // tail só é escrito pelo produtor e head só pelo consumidor (publicação com lazySet)
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity capacidade da fila, arredondada para a próxima potência de 2
+     */
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        codes = new byte[size];
+        timestamps = new long[size];
+    }
+
+    /**
+     * Publica um evento. Deve ser chamado sempre pela mesma thread.
+     * @return false se a fila estiver cheia (o evento é descartado)
+     */
+    public boolean offer(Action action, boolean pressed, long timestampNanos) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            return false;
+        }
+        int index = (int) t & mask;
+        codes[index] = (byte) (action.ordinal() << 1 | (pressed ? 1 : 0));
+        timestamps[index] = timestampNanos;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Consome todos os eventos disponíveis. Deve ser chamado sempre pela mesma thread.
+     * @return número de eventos entregues
+     */
+    public int drain(Sink sink) {
+        long h = head.get();
+        long t = tail.get();
+        for (long i = h; i < t; i++) {
+            int index = (int) i & mask;
+            int code = codes[index];
+            sink.accept(ACTIONS[code >>> 1], (code & 1) != 0, timestamps[index]);
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+}
@@ -0,0 +1,186 @@
+package com.tetris.engine;
+
+import com.tetris.model.GeneratorMode;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Replay de uma partida: a semente e o registro das teclas, por frame.
+ * Como o {@link GameEngine} é determinístico, isso basta para reproduzir a partida inteira.
+ * <p>
+ * Formato (gravado pelo {@link ReplayRecorder}):
+ * <pre>
+ * 'T' 'R' versão  modo  semente (8 bytes, big-endian)  varint DAS  varint ARR
+ * eventos: varint((frames desde o evento anterior &lt;&lt; 5) | código)
+ *          código = ação &lt;&lt; 1 | pressionada; o código END_CODE marca o fim da partida
+ * </pre>
+ * Varints usam 7 bits por byte (o bit alto indica continuação): um evento até ~4 frames depois
+ * do anterior ocupa 1 byte, e até ~8 segundos depois, 2 bytes.
+ * <p>
+ * Os bytes podem vir de um array ou de um trecho mapeado em memória (ex: {@code ReplayArchive}):
+ * o replay só lê o buffer, sem copiá-lo.
+ */
+public final class Replay {
+
+    static final byte MAGIC_0 = 'T';
+    static final byte MAGIC_1 = 'R';
+    static final byte VERSION = 1;
+    static final int CODE_BITS = 5;
+    static final int CODE_MASK = (1 << CODE_BITS) - 1;
+    static final int END_CODE = CODE_MASK;
+
+    private static final Action[] ACTIONS = Action.values();
+
+    private final ByteBuffer data;
+    private final GeneratorMode mode;
+    private final long seed;
+    private final int dasFrames;
+    private final int arrFrames;
+    private final int eventsOffset;
+    private final int eventCount;
+    private final long endFrame;
+
+    private Replay(ByteBuffer data, GeneratorMode mode, long seed, int dasFrames, int arrFrames,
+                   int eventsOffset, int eventCount, long endFrame) {
+        this.data = data;
+        this.mode = mode;
+        this.seed = seed;
+        this.dasFrames = dasFrames;
+        this.arrFrames = arrFrames;
+        this.eventsOffset = eventsOffset;
+        this.eventCount = eventCount;
+        this.endFrame = endFrame;
+    }
+
+    /**
+     * Valida e lê o cabeçalho de um replay gravado. O array não é copiado e não deve ser alterado.
+     * @throws IllegalArgumentException se os dados estiverem corrompidos ou incompletos
+     */
+    public static Replay decode(byte[] data) {
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Como {@link #decode(byte[])}, lendo do trecho entre a posição e o limite do buffer
+     * (a posição do buffer original não muda).
+     */
+    public static Replay decode(ByteBuffer buffer) {
+        ByteBuffer data = buffer.slice();
+        if (data.limit() < 12 || data.get(0) != MAGIC_0 || data.get(1) != MAGIC_1) {
+            throw new IllegalArgumentException("Dados não são um replay");
+        }
+        if (data.get(2) != VERSION) {
+            throw new IllegalArgumentException("Versão de replay não suportada: " + data.get(2));
+        }
+        int modeIndex = data.get(3);
+        if (modeIndex < 0 || modeIndex >= GeneratorMode.values().length) {
+            throw new IllegalArgumentException("Modo de gerador inválido: " + modeIndex);
+        }
+        long seed = data.getLong(4);
+        Cursor cursor = new Cursor(data, 12);
+        int das = (int) cursor.readVarint();
+        int arr = (int) cursor.readVarint();
+        int eventsOffset = cursor.position;
+
+        // Percorre os eventos uma vez para validar e descobrir a duração
+        long frame = 0;
+        int events = 0;
+        while (true) {
+            long value = cursor.readVarint();
+            frame += value >>> CODE_BITS;
+            int code = (int) value & CODE_MASK;
+            if (code == END_CODE) {
+                break;
+            }
+            if (code >>> 1 >= ACTIONS.length) {
+                throw new IllegalArgumentException("Ação inválida no evento " + events);
+            }
+            events++;
+        }
+        return new Replay(data, GeneratorMode.values()[modeIndex], seed, das, arr, eventsOffset, events, frame);
+    }
+
+    /**
+     * Motor novo, com o gerador e o auto-repeat da partida gravada (ainda não iniciado).
+     */
+    public GameEngine newEngine() {
+        GameEngine engine = new GameEngine(mode, seed);
+        engine.setAutoRepeat(dasFrames, arrFrames);
+        return engine;
+    }
+
+    public GeneratorMode getMode() { return mode; }
+    public long getSeed() { return seed; }
+    public int getDasFrames() { return dasFrames; }
+    public int getArrFrames() { return arrFrames; }
+    public int getEventCount() { return eventCount; }
+    /** Frame em que a partida terminou. */
+    public long getEndFrame() { return endFrame; }
+    public int getSizeBytes() { return data.limit(); }
+
+    /**
+     * Bytes do replay, prontos para gravar (cópia).
+     */
+    public byte[] toByteArray() {
+        byte[] copy = new byte[data.limit()];
+        data.get(0, copy);
+        return copy;
+    }
+
+    Cursor events() {
+        return new Cursor(data, eventsOffset);
+    }
+
+    Cursor events(int position) {
+        return new Cursor(data, position);
+    }
+
+    static Action action(int code) {
+        return ACTIONS[code >>> 1];
+    }
+
+    /**
+     * Escreve um varint sem sinal em buffer[position...].
+     * @return posição logo após o último byte escrito
+     */
+    static int writeVarint(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * Leitura sequencial dos varints de um replay.
+     */
+    static final class Cursor {
+        private final ByteBuffer data;
+        private int position;
+
+        Cursor(ByteBuffer data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= data.limit()) {
+                    throw new IllegalArgumentException("Replay incompleto");
+                }
+                byte b = data.get(position++);
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint inválido no replay");
+        }
+
+        int position() {
+            return position;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.tetris.engine;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Keyframes de um replay: o estado completo do {@link ReplayPlayer} a cada N frames.
+ * Todos os keyframes de uma partida têm o mesmo tamanho, então o keyframe de um frame qualquer
+ * é encontrado por conta (frame / intervalo), sem busca:
+ * <pre>
+ * int intervalo  int tamanhoDoEstado  int quantidade  estado[0] estado[1] ...
+ * </pre>
+ * O estado i corresponde ao frame i * intervalo, antes das teclas desse frame.
+ */
+public final class ReplayKeyframes {
+
+    /** Um keyframe a cada 10 segundos de jogo. */
+    public static final int DEFAULT_INTERVAL_FRAMES = 10 * GameEngine.FRAMES_PER_SECOND;
+
+    private static final int HEADER_BYTES = 12;
+    // Posição no registro de teclas (int + long + byte) seguida do snapshot
+    private static final int MAX_STATE_BYTES = 13 + SnapshotCodec.MAX_BYTES;
+
+    private final ByteBuffer data;
+    private final int intervalFrames;
+    private final int stateSize;
+    private final int count;
+
+    private ReplayKeyframes(ByteBuffer data) {
+        this.data = data;
+        this.intervalFrames = data.getInt(0);
+        this.stateSize = data.getInt(4);
+        this.count = data.getInt(8);
+        if (intervalFrames <= 0 || stateSize <= 0 || count < 0
+                || HEADER_BYTES + (long) count * stateSize > data.limit()) {
+            throw new IllegalArgumentException("Keyframes corrompidos");
+        }
+    }
+
+    /**
+     * Lê os keyframes entre a posição e o limite do buffer, sem copiá-los.
+     */
+    public static ReplayKeyframes wrap(ByteBuffer buffer) {
+        return new ReplayKeyframes(buffer.slice());
+    }
+
+    /**
+     * Reproduz a partida sem interface e grava um keyframe a cada intervalo.
+     */
+    public static byte[] build(Replay replay, int intervalFrames) {
+        ReplayPlayer player = new ReplayPlayer(replay, replay.newEngine());
+        player.start();
+        ByteBuffer first = ByteBuffer.allocate(MAX_STATE_BYTES);
+        player.writeKeyframe(first);
+        int stateSize = first.position();
+        int capacity = (int) (replay.getEndFrame() / intervalFrames) + 1;
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + capacity * stateSize);
+        out.putInt(intervalFrames).putInt(stateSize).putInt(0);
+        out.put(first.flip());
+        int count = 1;
+        GameEngine engine = player.getEngine();
+        for (; count < capacity; count++) {
+            long target = (long) count * intervalFrames;
+            while (engine.getFrame() < target && player.tick()) {
+                // avança até o próximo keyframe
+            }
+            if (engine.getFrame() < target) {
+                break;
+            }
+            player.writeKeyframe(out);
+        }
+        out.putInt(8, count);
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * Índice do último keyframe no frame pedido ou antes dele.
+     */
+    public int indexFor(long frame) {
+        if (count == 0) {
+            return -1;
+        }
+        return (int) Math.min(Math.max(0, frame) / intervalFrames, count - 1);
+    }
+
+    public long frameOf(int index) {
+        return (long) index * intervalFrames;
+    }
+
+    /**
+     * Estado do keyframe i (uma fatia do buffer, sem cópia).
+     */
+    public ByteBuffer state(int index) {
+        return data.slice(HEADER_BYTES + index * stateSize, stateSize);
+    }
+
+    public int getCount() { return count; }
+    public int getIntervalFrames() { return intervalFrames; }
+    public int getStateSize() { return stateSize; }
+}
@@ -0,0 +1,152 @@
+package com.tetris.engine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reproduz um {@link Replay} num {@link GameEngine}, frame a frame.
+ * Cada {@link #tick()} aplica as teclas gravadas para o frame atual e avança o motor, exatamente
+ * como o game loop faz com as teclas reais: chamado a 60 Hz pelo {@link com.tetris.controller.GameLoop}
+ * a partida é revista em tempo real; em laço ({@link #runToEnd()}) roda tão rápido quanto a CPU permite.
+ * Com os {@link ReplayKeyframes} da partida, {@link #seek} salta para qualquer frame a partir do
+ * keyframe anterior, sem reproduzir desde o início.
+ */
+public final class ReplayPlayer {
+
+    private final Replay replay;
+    private final GameEngine engine;
+
+    private Replay.Cursor cursor;
+    private long nextFrame;
+    private int nextCode;
+    private int previousDas;
+    private int previousArr;
+
+    public ReplayPlayer(Replay replay, GameEngine engine) {
+        this.replay = replay;
+        this.engine = engine;
+    }
+
+    /**
+     * Reproduz a partida inteira num motor novo, sem interface.
+     * @return o motor no estado final da partida
+     */
+    public static GameEngine playHeadless(Replay replay) {
+        ReplayPlayer player = new ReplayPlayer(replay, replay.newEngine());
+        player.start();
+        player.runToEnd();
+        return player.engine;
+    }
+
+    /**
+     * Aplica o auto-repeat gravado e inicia a partida com a semente do replay.
+     * O auto-repeat anterior do motor volta com {@link #restoreAutoRepeat()}.
+     */
+    public void start() {
+        previousDas = engine.getDasFrames();
+        previousArr = engine.getArrFrames();
+        engine.setAutoRepeat(replay.getDasFrames(), replay.getArrFrames());
+        engine.start(replay.getSeed());
+        cursor = replay.events();
+        nextFrame = 0;
+        readNext();
+    }
+
+    /**
+     * Aplica os eventos do frame atual e avança um frame.
+     * @return false quando o replay terminou
+     */
+    public boolean tick() {
+        if (isFinished()) {
+            return false;
+        }
+        long frame = engine.getFrame();
+        while (nextCode != Replay.END_CODE && nextFrame <= frame) {
+            Action action = Replay.action(nextCode);
+            if ((nextCode & 1) != 0) {
+                engine.press(action);
+            } else {
+                engine.release(action);
+            }
+            readNext();
+        }
+        engine.tick();
+        return !isFinished();
+    }
+
+    /**
+     * Roda os frames restantes sem pausa.
+     * @return número de frames executados
+     */
+    public long runToEnd() {
+        long start = engine.getFrame();
+        while (tick()) {
+            // tudo acontece em tick()
+        }
+        return engine.getFrame() - start;
+    }
+
+    /**
+     * Posiciona o replay no frame pedido (ou no fim da partida, se ela terminar antes).
+     * Deve ser chamado depois de {@link #start()}.
+     * @param keyframes keyframes desta partida, ou null para avançar (ou recomeçar) sem eles
+     */
+    public void seek(long frame, ReplayKeyframes keyframes) {
+        long current = engine.getFrame();
+        int index = keyframes == null ? -1 : keyframes.indexFor(frame);
+        if (index >= 0 && (frame < current || keyframes.frameOf(index) > current)) {
+            readKeyframe(keyframes.state(index));
+        } else if (frame < current) {
+            engine.start(replay.getSeed());
+            cursor = replay.events();
+            nextFrame = 0;
+            readNext();
+        }
+        while (engine.getFrame() < frame && tick()) {
+            // tick() avança um frame por vez
+        }
+    }
+
+    /**
+     * Grava o estado do replay neste frame: a posição no registro de teclas e o snapshot do motor
+     * ({@link SnapshotCodec}).
+     */
+    public void writeKeyframe(ByteBuffer out) {
+        out.putInt(cursor.position()).putLong(nextFrame).put((byte) nextCode);
+        SnapshotCodec.encode(engine, out);
+    }
+
+    /**
+     * Restaura um estado gravado por {@link #writeKeyframe(ByteBuffer)} (da mesma partida).
+     */
+    public void readKeyframe(ByteBuffer in) {
+        int position = in.getInt();
+        long frame = in.getLong();
+        int code = in.get();
+        SnapshotCodec.decode(in, engine);
+        cursor = replay.events(position);
+        nextFrame = frame;
+        nextCode = code;
+    }
+
+    public boolean isFinished() {
+        return engine.getBoard().isGameOver() || engine.getFrame() >= replay.getEndFrame();
+    }
+
+    public void restoreAutoRepeat() {
+        engine.setAutoRepeat(previousDas, previousArr);
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    private void readNext() {
+        long value = cursor.readVarint();
+        nextFrame += value >>> Replay.CODE_BITS;
+        nextCode = (int) value & Replay.CODE_MASK;
+    }
+}
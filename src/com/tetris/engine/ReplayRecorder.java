@@ -0,0 +1,155 @@
+package com.tetris.engine;
+
+import com.tetris.model.GeneratorMode;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Grava o replay da partida em andamento no formato de {@link Replay}.
+ * O {@link GameEngine} chama {@link #begin} ao iniciar a partida e {@link #record} a cada tecla
+ * efetivamente pressionada ou solta; cada evento custa um ou dois bytes num buffer que só cresce
+ * (sem alocação por evento). Deve ser usado sempre pela thread do motor.
+ * <p>
+ * Para voltar no tempo ({@link RewindBuffer}) o registro é cortado de volta a uma marca
+ * ({@link #writeMark}/{@link #truncate}), e o conteúdo inteiro pode ser salvo e restaurado junto
+ * com o snapshot da partida (arquivo de recuperação).
+ */
+public final class ReplayRecorder {
+
+    /** Tamanho de uma marca gravada por {@link #writeMark(ByteBuffer)}. */
+    public static final int MARK_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private static final int INITIAL_CAPACITY = 4096;
+    // Maior varint (64 bits) ocupa 10 bytes
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+    private long lastFrame;
+    private int eventCount;
+    private boolean recording;
+
+    /**
+     * Começa um replay novo, descartando o anterior.
+     * @param mode modo do gerador, ou null se a partida não puder ser reproduzida (nada é gravado)
+     */
+    public void begin(GeneratorMode mode, long seed, int dasFrames, int arrFrames) {
+        size = 0;
+        lastFrame = 0;
+        eventCount = 0;
+        recording = mode != null;
+        if (!recording) {
+            return;
+        }
+        buffer[size++] = Replay.MAGIC_0;
+        buffer[size++] = Replay.MAGIC_1;
+        buffer[size++] = Replay.VERSION;
+        buffer[size++] = (byte) mode.ordinal();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (seed >>> shift);
+        }
+        size = Replay.writeVarint(buffer, size, dasFrames);
+        size = Replay.writeVarint(buffer, size, arrFrames);
+    }
+
+    void record(long frame, Action action, boolean pressed) {
+        if (!recording) {
+            return;
+        }
+        append(frame, action.ordinal() << 1 | (pressed ? 1 : 0));
+        eventCount++;
+    }
+
+    /**
+     * Fecha o replay no frame informado (o do fim da partida).
+     * @return os bytes do replay, ou null se nada estava sendo gravado
+     */
+    public byte[] finish(long frame) {
+        if (!recording) {
+            return null;
+        }
+        append(frame, Replay.END_CODE);
+        recording = false;
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Grava a posição atual do registro (sem alocar).
+     */
+    public void writeMark(ByteBuffer out) {
+        out.putInt(size).putLong(lastFrame).putInt(eventCount);
+    }
+
+    /**
+     * Volta o registro a uma marca: os eventos gravados depois dela são descartados.
+     */
+    public void truncate(ByteBuffer mark) {
+        int markSize = mark.getInt();
+        long markFrame = mark.getLong();
+        int markEvents = mark.getInt();
+        if (recording && markSize <= size) {
+            size = markSize;
+            lastFrame = markFrame;
+            eventCount = markEvents;
+        }
+    }
+
+    /**
+     * Grava o replay em andamento inteiro (para continuar a gravação depois de reiniciar o jogo).
+     */
+    public void writeState(ByteBuffer out) {
+        out.put((byte) (recording ? 1 : 0));
+        writeMark(out);
+        out.put(buffer, 0, size);
+    }
+
+    /**
+     * Bytes necessários para {@link #writeState(ByteBuffer)}.
+     */
+    public int getStateBytes() {
+        return 1 + MARK_BYTES + size;
+    }
+
+    /**
+     * Restaura um replay gravado por {@link #writeState(ByteBuffer)}.
+     * @throws IllegalArgumentException se o tamanho gravado não couber no que resta do buffer
+     */
+    public void readState(ByteBuffer in) {
+        boolean wasRecording = in.get() != 0;
+        int newSize = in.getInt();
+        long newLastFrame = in.getLong();
+        int newEventCount = in.getInt();
+        if (newSize < 0 || newSize > in.remaining() || newEventCount < 0) {
+            throw new IllegalArgumentException("Replay gravado inválido (" + newSize + " bytes)");
+        }
+        recording = wasRecording;
+        lastFrame = newLastFrame;
+        eventCount = newEventCount;
+        if (newSize > buffer.length) {
+            buffer = new byte[Math.max(newSize, buffer.length * 2)];
+        }
+        in.get(buffer, 0, newSize);
+        size = newSize;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public int getSizeBytes() {
+        return size;
+    }
+
+    private void append(long frame, int code) {
+        if (size + MAX_VARINT_BYTES > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        size = Replay.writeVarint(buffer, size, (frame - lastFrame) << Replay.CODE_BITS | code);
+        lastFrame = frame;
+    }
+}
@@ -0,0 +1,84 @@
+package com.tetris.engine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Buffer circular de tamanho fixo com os snapshots mais recentes da partida ({@link SnapshotCodec}),
+ * para voltar no tempo instantaneamente.
+ * Todo o espaço é alocado na criação: capturar e restaurar só copiam bytes dentro dele, então
+ * podem rodar na thread do game loop a cada intervalo sem gerar lixo. Junto com cada snapshot vai
+ * a marca do {@link ReplayRecorder}, e voltar no tempo corta o replay no mesmo ponto: o replay
+ * gravado continua reproduzindo exatamente a partida que o jogador viu.
+ */
+public final class RewindBuffer {
+
+    private static final int SLOT_BYTES = ReplayRecorder.MARK_BYTES + SnapshotCodec.MAX_BYTES;
+
+    private final ByteBuffer slots;
+    private final long[] frames;
+    private final ReplayRecorder recorder; // null: sem replay para cortar
+    private int newest = -1;
+    private int count;
+
+    /**
+     * @param capacity quantidade de snapshots guardados (os mais antigos são sobrescritos)
+     */
+    public RewindBuffer(int capacity, ReplayRecorder recorder) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("O buffer de rewind precisa de ao menos um snapshot");
+        }
+        this.slots = ByteBuffer.allocate(capacity * SLOT_BYTES);
+        this.frames = new long[capacity];
+        this.recorder = recorder;
+    }
+
+    /**
+     * Guarda o estado atual, sobrescrevendo o snapshot mais antigo se o buffer estiver cheio.
+     */
+    public void capture(GameEngine engine) {
+        newest = newest + 1 == frames.length ? 0 : newest + 1;
+        count = Math.min(count + 1, frames.length);
+        frames[newest] = engine.getFrame();
+        slots.position(newest * SLOT_BYTES);
+        if (recorder != null) {
+            recorder.writeMark(slots);
+        } else {
+            slots.position(slots.position() + ReplayRecorder.MARK_BYTES);
+        }
+        SnapshotCodec.encode(engine, slots);
+    }
+
+    /**
+     * Volta ao snapshot mais recente que esteja ao menos minFrames antes do frame atual
+     * (ou ao mais antigo disponível). Os snapshots mais novos que ele são descartados; o restaurado
+     * continua no buffer, e o próximo rewind vai além dele.
+     * @return false se não há snapshot para voltar
+     */
+    public boolean rewind(GameEngine engine, int minFrames) {
+        long target = engine.getFrame() - minFrames;
+        while (count > 1 && frames[newest] > target) {
+            newest = newest == 0 ? frames.length - 1 : newest - 1;
+            count--;
+        }
+        if (count == 0) {
+            return false;
+        }
+        int base = newest * SLOT_BYTES;
+        slots.position(base + ReplayRecorder.MARK_BYTES);
+        SnapshotCodec.decode(slots, engine);
+        if (recorder != null) {
+            slots.position(base);
+            recorder.truncate(slots);
+        }
+        return true;
+    }
+
+    public void clear() {
+        newest = -1;
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+}
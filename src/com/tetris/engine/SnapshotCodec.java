@@ -0,0 +1,59 @@
+package com.tetris.engine;
+
+import com.tetris.model.GeneratorMode;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Formato binário compacto do estado completo de uma partida (motor, Board e gerador).
+ * <pre>
+ * int magic  byte versão  byte modo do gerador  estado do motor ({@link GameEngine#writeState})
+ * </pre>
+ * A grelha vai compactada em 3 bits por célula (80 bytes) e o snapshot inteiro cabe em
+ * {@link #MAX_BYTES}. Codificar e decodificar só leem e escrevem no buffer recebido, sem alocar,
+ * então podem rodar a cada frame na thread do game loop. É o mesmo formato usado pelos
+ * keyframes de replay, pelo {@link RewindBuffer} e pelo arquivo de recuperação.
+ */
+public final class SnapshotCodec {
+
+    public static final int MAGIC = 0x54534E50; // "TSNP"
+    public static final byte VERSION = 2;
+    /** Limite folgado para qualquer gerador (o snapshot típico tem ~170 bytes). */
+    public static final int MAX_BYTES = 256;
+
+    private static final GeneratorMode[] MODES = GeneratorMode.values();
+
+    private SnapshotCodec() {
+    }
+
+    /**
+     * Grava o snapshot a partir da posição atual do buffer.
+     */
+    public static void encode(GameEngine engine, ByteBuffer out) {
+        GeneratorMode mode = GeneratorMode.of(engine.getBoard().getPieceGenerator());
+        out.putInt(MAGIC).put(VERSION).put((byte) (mode == null ? -1 : mode.ordinal()));
+        engine.writeState(out);
+    }
+
+    /**
+     * Restaura um snapshot no motor. O gerador do motor precisa ser do mesmo modo do snapshot.
+     * @throws IllegalArgumentException se o snapshot for inválido, de outra versão ou de outro modo
+     *                                  (nesse caso o motor não é alterado)
+     */
+    public static void decode(ByteBuffer in, GameEngine engine) {
+        if (in.remaining() < 6 || in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Snapshot inválido");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versão de snapshot não suportada: " + version);
+        }
+        int modeIndex = in.get();
+        GeneratorMode mode = GeneratorMode.of(engine.getBoard().getPieceGenerator());
+        if ((mode == null ? -1 : mode.ordinal()) != modeIndex) {
+            throw new IllegalArgumentException("Snapshot gravado no modo "
+                    + (modeIndex >= 0 && modeIndex < MODES.length ? MODES[modeIndex].name().toLowerCase() : "desconhecido"));
+        }
+        engine.readState(in);
+    }
+}
@@ -0,0 +1,71 @@
+package com.tetris.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Modo 7-bag: as 7 formas são embaralhadas num "saco" e entregues uma a uma;
+ * quando o saco esvazia, um novo é embaralhado. Nunca há mais de 12 peças
+ * entre duas ocorrências da mesma forma.
+ */
+public class BagPieceGenerator implements PieceGenerator {
+
+    private static final Shape.Tetrominoe[] VALUES = Shape.Tetrominoe.values();
+
+    private final Xoroshiro128 random;
+    private final byte[] bag = new byte[7];
+    private int index;
+
+    public BagPieceGenerator(long seed) {
+        random = new Xoroshiro128(seed);
+        index = bag.length;
+    }
+
+    @Override
+    public Shape.Tetrominoe next() {
+        if (index == bag.length) {
+            refill();
+        }
+        return VALUES[bag[index++]];
+    }
+
+    @Override
+    public void reset(long seed) {
+        random.setSeed(seed);
+        index = bag.length;
+    }
+
+    @Override
+    public void writeState(ByteBuffer out) {
+        random.writeState(out);
+        out.put(bag).put((byte) index);
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        random.readState(in);
+        in.get(bag);
+        index = in.get();
+        if (index < 0 || index > bag.length) {
+            throw new IllegalArgumentException("Posição inválida no saco: " + index);
+        }
+        for (byte shape : bag) {
+            if (shape < 1 || shape >= VALUES.length) {
+                throw new IllegalArgumentException("Forma inválida no saco: " + shape);
+            }
+        }
+    }
+
+    // Fisher-Yates sobre as formas 1..7, reaproveitando o mesmo array
+    private void refill() {
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = (byte) (i + 1);
+        }
+        for (int i = bag.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte t = bag[i];
+            bag[i] = bag[j];
+            bag[j] = t;
+        }
+        index = 0;
+    }
+}
@@ -0,0 +1,176 @@
+package com.tetris.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Grelha de ocupação do tabuleiro representada por bitboards.
+ * Cada linha é uma máscara de bits (bit x = coluna x ocupada) e um array paralelo
+ * de bytes guarda a cor (ordinal do Tetrominoe) de cada célula.
+ * Testar se uma linha está cheia é uma única comparação e remover uma linha
+ * é um único System.arraycopy por array.
+ * Também mantém a altura da superfície de cada coluna (linha acima do bloco mais alto),
+ * usada para calcular em O(1) onde a peça vai cair.
+ */
+public final class BitGrid {
+
+    public static final int WIDTH = Board.BOARD_WIDTH;
+    public static final int HEIGHT = Board.BOARD_HEIGHT;
+    public static final int FULL_ROW = (1 << WIDTH) - 1;
+
+    // Estado compactado: 3 bits por célula bastam para as 8 formas (incluindo NoShape)
+    private static final int CELL_BITS = 3;
+    private static final int CELL_MASK = (1 << CELL_BITS) - 1;
+    public static final int STATE_BYTES = HEIGHT * Integer.BYTES;
+
+    private static final Shape.Tetrominoe[] SHAPES = Shape.Tetrominoe.values();
+
+    private final int[] rows;
+    private final byte[] cells;
+    private final int[] heights;
+
+    public BitGrid() {
+        rows = new int[HEIGHT];
+        cells = new byte[WIDTH * HEIGHT];
+        heights = new int[WIDTH];
+    }
+
+    public void clear() {
+        Arrays.fill(rows, 0);
+        Arrays.fill(cells, (byte) 0);
+        Arrays.fill(heights, 0);
+    }
+
+    public void copyFrom(BitGrid other) {
+        System.arraycopy(other.rows, 0, rows, 0, HEIGHT);
+        System.arraycopy(other.cells, 0, cells, 0, WIDTH * HEIGHT);
+        System.arraycopy(other.heights, 0, heights, 0, WIDTH);
+    }
+
+    /**
+     * Grava a grelha compactada: uma linha por int, 3 bits por célula (o ordinal da forma,
+     * 0 = vazia), coluna x nos bits 3x..3x+2. São {@link #STATE_BYTES} bytes, sem alocação.
+     */
+    public void writeState(ByteBuffer out) {
+        for (int y = 0; y < HEIGHT; y++) {
+            int packed = 0;
+            if (rows[y] != 0) {
+                int base = y * WIDTH;
+                for (int x = 0; x < WIDTH; x++) {
+                    packed |= cells[base + x] << (CELL_BITS * x);
+                }
+            }
+            out.putInt(packed);
+        }
+    }
+
+    /**
+     * Restaura a grelha gravada por {@link #writeState(ByteBuffer)}, recalculando máscaras e alturas.
+     */
+    public void readState(ByteBuffer in) {
+        for (int y = 0; y < HEIGHT; y++) {
+            int packed = in.getInt();
+            int base = y * WIDTH;
+            int mask = 0;
+            for (int x = 0; x < WIDTH; x++) {
+                int cell = packed >>> (CELL_BITS * x) & CELL_MASK;
+                cells[base + x] = (byte) cell;
+                if (cell != 0) {
+                    mask |= 1 << x;
+                }
+            }
+            rows[y] = mask;
+        }
+        recomputeHeights();
+    }
+
+    public boolean isOccupied(int x, int y) {
+        return (rows[y] >>> x & 1) != 0;
+    }
+
+    public Shape.Tetrominoe shapeAt(int x, int y) {
+        return SHAPES[cells[y * WIDTH + x]];
+    }
+
+    /**
+     * Copia os ordinais de todas as células (linha a linha, de baixo para cima) para o destino.
+     */
+    public void copyCellsTo(byte[] dest) {
+        System.arraycopy(cells, 0, dest, 0, WIDTH * HEIGHT);
+    }
+
+    public int rowMask(int y) {
+        return rows[y];
+    }
+
+    public boolean isRowFull(int y) {
+        return rows[y] == FULL_ROW;
+    }
+
+    /**
+     * Altura da superfície da coluna: a primeira linha livre acima do bloco mais alto (0 se vazia).
+     */
+    public int columnHeight(int x) {
+        return heights[x];
+    }
+
+    public void set(int x, int y, Shape.Tetrominoe shape) {
+        cells[y * WIDTH + x] = (byte) shape.ordinal();
+        if (shape == Shape.Tetrominoe.NoShape) {
+            rows[y] &= ~(1 << x);
+            if (heights[x] == y + 1) {
+                int h = y;
+                while (h > 0 && (rows[h - 1] >>> x & 1) == 0) {
+                    h--;
+                }
+                heights[x] = h;
+            }
+        } else {
+            rows[y] |= 1 << x;
+            if (heights[x] <= y) {
+                heights[x] = y + 1;
+            }
+        }
+    }
+
+    /**
+     * Remove todas as linhas cheias, descendo as linhas de cima.
+     * @return número de linhas removidas
+     */
+    public int clearFullRows() {
+        int removed = 0;
+        int y = 0;
+        int top = HEIGHT;
+        while (y < top) {
+            if (rows[y] != FULL_ROW) {
+                y++;
+                continue;
+            }
+            int above = top - y - 1;
+            System.arraycopy(rows, y + 1, rows, y, above);
+            System.arraycopy(cells, (y + 1) * WIDTH, cells, y * WIDTH, above * WIDTH);
+            top--;
+            rows[top] = 0;
+            Arrays.fill(cells, top * WIDTH, top * WIDTH + WIDTH, (byte) 0);
+            removed++;
+        }
+        if (removed > 0) {
+            recomputeHeights();
+        }
+        return removed;
+    }
+
+    // Varre as máscaras de cima para baixo até todas as colunas encontrarem o seu topo
+    private void recomputeHeights() {
+        Arrays.fill(heights, 0);
+        int pending = FULL_ROW;
+        for (int y = HEIGHT - 1; y >= 0 && pending != 0; y--) {
+            int found = rows[y] & pending;
+            pending &= ~found;
+            while (found != 0) {
+                heights[Integer.numberOfTrailingZeros(found)] = y + 1;
+                found &= found - 1;
+            }
+        }
+    }
+}
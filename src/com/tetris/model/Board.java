@@ -1,10 +1,6 @@
 package com.tetris.model;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Representa o estado completo do tabuleiro de jogo.
@@ -17,7 +13,9 @@ public class Board {
     public static final int BOARD_WIDTH = 10;
     public static final int BOARD_HEIGHT = 20;
     private static final int LEVEL_UP_LINES = 10;
-    private static final String HIGHSCORE_FILE = "highscore.txt";
+    private static final int[] LINE_POINTS = {0, 40, 100, 300, 1200};
+    public static final int PREVIEW_SIZE = 5;
+    public static final int SPAWN_X = BOARD_WIDTH / 2;
 
     // --- Estado do Jogo ---
     private boolean isStarted = false;
@@ -32,13 +30,31 @@ public class Board {
 
     private Piece currentPiece;
     private Piece nextPiece;
-    private Shape.Tetrominoe[] boardGrid; 
+    private final BitGrid grid;
+    private final PieceQueue pieceQueue;
+
+    // Cache da linha de pouso da peça atual; vale até a peça mudar de coluna/rotação ou a grelha mudar
+    private int ghostY;
+    private boolean ghostValid = false;
+
+    // Contadores de alteração: version muda a cada mudança de estado, gridVersion só quando a grelha muda
+    private long version = 0;
+    private long gridVersion = 0;
 
     public Board() {
-        boardGrid = new Shape.Tetrominoe[BOARD_WIDTH * BOARD_HEIGHT];
+        this(GeneratorMode.fromName(System.getProperty("tetris.randomizer")).create(System.nanoTime()));
+    }
+
+    /**
+     * O Board não lê nem grava arquivos: o recorde inicial é informado com {@link #setHighScore(int)}
+     * e quem persiste o recorde novo é o controller, fora do caminho do jogo.
+     * @param generator gerador das próximas peças (semeado pelo chamador para partidas reprodutíveis)
+     */
+    public Board(PieceGenerator generator) {
+        this.grid = new BitGrid();
+        this.pieceQueue = new PieceQueue(generator, PREVIEW_SIZE);
         currentPiece = new Piece();
         nextPiece = new Piece();
-        loadHighScore();
         clearBoard();
     }
 
@@ -50,64 +66,59 @@ public class Board {
         level = 1;
         linesCleared = 0;
         clearBoard();
-        
-        nextPiece.setRandomShape();
+
+        pieceQueue.refill();
         newPiece();
     }
 
     private void clearBoard() {
-        for (int i = 0; i < BOARD_WIDTH * BOARD_HEIGHT; i++) {
-            boardGrid[i] = Shape.Tetrominoe.NoShape;
-        }
+        grid.clear();
+        ghostValid = false;
+        gridVersion++;
+        version++;
     }
 
     private void newPiece() {
-        currentPiece = nextPiece;
-        currentPiece.setX(BOARD_WIDTH / 2);
-        currentPiece.setY(BOARD_HEIGHT - 1 + currentPiece.minY());
+        // Os dois objetos Piece são reaproveitados; as formas vêm da fila de prévia
+        currentPiece.setShape(pieceQueue.next());
+        ghostValid = false;
+        version++;
+        currentPiece.setX(SPAWN_X);
+        currentPiece.setY(spawnY(currentPiece.getShape()));
 
-        nextPiece = new Piece();
-        nextPiece.setRandomShape();
+        nextPiece.setShape(pieceQueue.peek(0));
 
-        if (!tryMove(currentPiece, currentPiece.getX(), currentPiece.getY())) {
+        if (!tryMove(currentPiece.getRotation(), currentPiece.getX(), currentPiece.getY())) {
             isGameOver = true;
             currentPiece.setShape(Shape.Tetrominoe.NoShape);
             
             if (score > highScore) {
                 highScore = score;
-                saveHighScore();
             }
         }
     }
 
-    private boolean tryMove(Piece piece, int newX, int newY) {
-        for (int i = 0; i < 4; i++) {
-            int x = newX + piece.x(i);
-            int y = newY - piece.y(i);
-
-            if (x < 0 || x >= BOARD_WIDTH || y < 0) {
-                return false;
-            }
-
-            if (y < BOARD_HEIGHT && shapeAt(x, y) != Shape.Tetrominoe.NoShape) {
-                return false;
-            }
+    private boolean tryMove(int newRotation, int newX, int newY) {
+        if (!canMoveTo(currentPiece.getShape(), newRotation, newX, newY)) {
+            return false;
         }
 
-        currentPiece = piece;
+        // Movimentos só verticais não mudam a linha de pouso
+        if (newRotation != currentPiece.getRotation() || newX != currentPiece.getX()) {
+            ghostValid = false;
+        }
+        currentPiece.setRotation(newRotation);
         currentPiece.setX(newX);
         currentPiece.setY(newY);
+        version++;
         return true;
     }
 
     private void pieceDropped() {
-        for (int i = 0; i < 4; i++) {
-            int x = currentPiece.getX() + currentPiece.x(i);
-            int y = currentPiece.getY() - currentPiece.y(i);
-            if (y >= 0 && y < BOARD_HEIGHT) {
-                boardGrid[y * BOARD_WIDTH + x] = currentPiece.getShape();
-            }
-        }
+        placeCells(grid, currentPiece.getShape(), currentPiece.getRotation(), currentPiece.getX(), currentPiece.getY());
+        ghostValid = false;
+        gridVersion++;
+        version++;
         removeFullLines();
         if (!isGameOver) {
             newPiece();
@@ -115,25 +126,7 @@ public class Board {
     }
 
     private void removeFullLines() {
-        int numFullLines = 0;
-        for (int i = BOARD_HEIGHT - 1; i >= 0; i--) {
-            boolean lineIsFull = true;
-            for (int j = 0; j < BOARD_WIDTH; j++) {
-                if (shapeAt(j, i) == Shape.Tetrominoe.NoShape) {
-                    lineIsFull = false;
-                    break;
-                }
-            }
-
-            if (lineIsFull) {
-                numFullLines++;
-                for (int k = i; k < BOARD_HEIGHT - 1; k++) {
-                    for (int j = 0; j < BOARD_WIDTH; j++) {
-                        boardGrid[k * BOARD_WIDTH + j] = shapeAt(j, k + 1);
-                    }
-                }
-            }
-        }
+        int numFullLines = grid.clearFullRows();
 
         if (numFullLines > 0) {
             updateScore(numFullLines);
@@ -148,29 +141,29 @@ public class Board {
     // --- Ações do Jogador ---
 
     public void moveLeft() {
-        tryMove(currentPiece, currentPiece.getX() - 1, currentPiece.getY());
+        tryMove(currentPiece.getRotation(), currentPiece.getX() - 1, currentPiece.getY());
     }
 
     public void moveRight() {
-        tryMove(currentPiece, currentPiece.getX() + 1, currentPiece.getY());
+        tryMove(currentPiece.getRotation(), currentPiece.getX() + 1, currentPiece.getY());
     }
 
     public void rotateLeft() {
-        tryMove(currentPiece.rotateLeft(), currentPiece.getX(), currentPiece.getY());
+        tryMove(Shape.rotatedLeft(currentPiece.getRotation()), currentPiece.getX(), currentPiece.getY());
     }
 
     public void rotateRight() {
-        tryMove(currentPiece.rotateRight(), currentPiece.getX(), currentPiece.getY());
+        tryMove(Shape.rotatedRight(currentPiece.getRotation()), currentPiece.getX(), currentPiece.getY());
     }
 
     public void dropDown() {
         int newY = getGhostPieceY();
-        tryMove(currentPiece, currentPiece.getX(), newY);
+        tryMove(currentPiece.getRotation(), currentPiece.getX(), newY);
         pieceDropped();
     }
     
     public void movePieceDown() {
-        if (!tryMove(currentPiece, currentPiece.getX(), currentPiece.getY() - 1)) {
+        if (!tryMove(currentPiece.getRotation(), currentPiece.getX(), currentPiece.getY() - 1)) {
             pieceDropped();
         }
     }
@@ -180,18 +173,63 @@ public class Board {
     public void togglePause() {
         if (!isStarted || isGameOver) return;
         isPaused = !isPaused;
+        version++;
     }
 
     // Novo: Alterna a visibilidade da peça fantasma
     public void toggleGhostPiece() {
         isGhostPieceEnabled = !isGhostPieceEnabled;
+        version++;
+    }
+
+    public void setGhostPieceEnabled(boolean enabled) {
+        if (isGhostPieceEnabled == enabled) return;
+        isGhostPieceEnabled = enabled;
+        version++;
+    }
+
+    /**
+     * Recorde inicial (carregado do estado salvo).
+     */
+    public void setHighScore(int highScore) {
+        this.highScore = highScore;
+        version++;
     }
 
     // Novo: Calcula a posição Y final da peça atual (para a peça fantasma)
     public int getGhostPieceY() {
+        if (!ghostValid) {
+            ghostY = computeGhostY();
+            ghostValid = true;
+        }
+        return ghostY;
+    }
+
+    /**
+     * Linha de pouso a partir das alturas das quatro colunas ocupadas pela peça.
+     * Se a peça já estiver abaixo da superfície de alguma coluna (encaixada sob uma saliência),
+     * as alturas não valem e a busca desce linha a linha como antes.
+     */
+    private int computeGhostY() {
+        int pieceX = currentPiece.getX();
+        int pieceY = currentPiece.getY();
+        int landing = Integer.MIN_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int x = pieceX + currentPiece.x(i);
+            int cellY = currentPiece.y(i);
+            int height = grid.columnHeight(x);
+            if (pieceY - cellY < height) {
+                return scanGhostY();
+            }
+            landing = Math.max(landing, height + cellY);
+        }
+        return landing;
+    }
+
+    private int scanGhostY() {
         int y = currentPiece.getY();
         while (true) {
-            if (!canMoveTo(currentPiece, currentPiece.getX(), y - 1)) {
+            if (!canMoveTo(currentPiece.getShape(), currentPiece.getRotation(), currentPiece.getX(), y - 1)) {
                 return y;
             }
             y--;
@@ -199,45 +237,116 @@ public class Board {
     }
 
     // Novo: Método auxiliar para verificar se a peça pode mover-se para uma posição
-    private boolean canMoveTo(Piece piece, int newX, int newY) {
+    private boolean canMoveTo(Shape.Tetrominoe shape, int rotation, int newX, int newY) {
+        return canMoveTo(grid, shape, rotation, newX, newY);
+    }
+
+    /**
+     * Regra de colisão do jogo: a peça cabe se todas as células estiverem dentro das paredes e acima
+     * do chão, sem sobrepor blocos (acima do topo visível não há colisão).
+     * Compartilhada com o {@link PlacementGenerator}, que a aplica sobre qualquer grelha.
+     */
+    static boolean canMoveTo(BitGrid grid, Shape.Tetrominoe shape, int rotation, int newX, int newY) {
         for (int i = 0; i < 4; i++) {
-            int x = newX + piece.x(i);
-            int y = newY - piece.y(i);
+            int x = newX + Shape.cellX(shape, rotation, i);
+            int y = newY - Shape.cellY(shape, rotation, i);
             if (x < 0 || x >= BOARD_WIDTH || y < 0) return false;
-            if (y < BOARD_HEIGHT && shapeAt(x, y) != Shape.Tetrominoe.NoShape) return false;
+            if (y < BOARD_HEIGHT && grid.isOccupied(x, y)) return false;
         }
         return true;
     }
 
-    // --- Pontuação ---
+    /**
+     * Grava na grelha as células de uma peça travada; as que ficam acima do topo visível se perdem.
+     * Compartilhado com o {@link PlacementGenerator}, que trava encaixes sobre outras grelhas.
+     */
+    static void placeCells(BitGrid grid, Shape.Tetrominoe shape, int rotation, int pieceX, int pieceY) {
+        for (int i = 0; i < 4; i++) {
+            int x = pieceX + Shape.cellX(shape, rotation, i);
+            int y = pieceY - Shape.cellY(shape, rotation, i);
+            if (y >= 0 && y < BOARD_HEIGHT) {
+                grid.set(x, y, shape);
+            }
+        }
+    }
 
-    private void updateScore(int lines) {
-        int[] points = {0, 40, 100, 300, 1200};
-        score += points[lines] * level;
+    // --- Keyframes de replay ---
+
+    /**
+     * Grava o estado de jogo completo (status, pontuação, peça atual, grelha, prévia e gerador).
+     * O recorde não faz parte da partida e não é gravado.
+     */
+    public void writeState(ByteBuffer out) {
+        int flags = (isStarted ? 1 : 0) | (isPaused ? 2 : 0) | (isGameOver ? 4 : 0) | (isGhostPieceEnabled ? 8 : 0);
+        out.put((byte) flags);
+        out.putInt(score).putInt(level).putInt(linesCleared);
+        out.put((byte) currentPiece.getShape().ordinal()).put((byte) currentPiece.getRotation());
+        out.put((byte) currentPiece.getX()).put((byte) currentPiece.getY());
+        out.put((byte) nextPiece.getShape().ordinal());
+        grid.writeState(out);
+        pieceQueue.writeState(out);
     }
 
-    private void loadHighScore() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(HIGHSCORE_FILE))) {
-            highScore = Integer.parseInt(reader.readLine());
-        } catch (IOException | NumberFormatException e) {
-            highScore = 0;
+    /**
+     * Restaura um estado gravado por {@link #writeState(ByteBuffer)}.
+     * @throws IllegalArgumentException se o estado for inconsistente (forma ou posição inválida,
+     *         ou peça em jogo sobreposta à grelha)
+     */
+    public void readState(ByteBuffer in) {
+        int flags = in.get();
+        isStarted = (flags & 1) != 0;
+        isPaused = (flags & 2) != 0;
+        isGameOver = (flags & 4) != 0;
+        isGhostPieceEnabled = (flags & 8) != 0;
+        score = in.getInt();
+        level = in.getInt();
+        linesCleared = in.getInt();
+        if (level < 1 || score < 0 || linesCleared < 0) {
+            throw new IllegalArgumentException("Pontuação inválida no estado gravado");
         }
+        currentPiece.setShape(Shape.shapeOf(in.get()));
+        currentPiece.setRotation(in.get());
+        int x = in.get();
+        int y = in.get();
+        // A origem é uma célula da peça, e nenhuma peça em jogo fica acima do surgimento (spawnY)
+        if (x < 0 || x >= BOARD_WIDTH || y < 0 || y >= BOARD_HEIGHT) {
+            throw new IllegalArgumentException("Posição de peça inválida: " + x + ", " + y);
+        }
+        currentPiece.setX(x);
+        currentPiece.setY(y);
+        nextPiece.setShape(Shape.shapeOf(in.get()));
+        grid.readState(in);
+        pieceQueue.readState(in);
+        Shape.Tetrominoe shape = currentPiece.getShape();
+        if (shape != Shape.Tetrominoe.NoShape && !canMoveTo(shape, currentPiece.getRotation(), x, y)) {
+            throw new IllegalArgumentException("Peça em jogo sobreposta à grelha: " + x + ", " + y);
+        }
+        ghostValid = false;
+        gridVersion++;
+        version++;
     }
 
-    private void saveHighScore() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(HIGHSCORE_FILE))) {
-            writer.write(String.valueOf(highScore));
-        } catch (IOException e) {
-            System.err.println("Erro ao salvar o high score: " + e.getMessage());
-        }
+    // --- Pontuação ---
+
+    private void updateScore(int lines) {
+        score += LINE_POINTS[lines] * level;
     }
 
     // --- Getters para o View e Controller ---
 
+    /**
+     * Linha em que uma peça nova da forma informada aparece (na rotação inicial, coluna {@link #SPAWN_X}).
+     */
+    public static int spawnY(Shape.Tetrominoe shape) {
+        return BOARD_HEIGHT - 1 + Shape.minY(shape, 0);
+    }
+
     public Shape.Tetrominoe shapeAt(int x, int y) {
-        return boardGrid[y * BOARD_WIDTH + x];
+        return grid.shapeAt(x, y);
     }
 
+    public BitGrid getGrid() { return grid; }
+
     public boolean isStarted() { return isStarted; }
     public boolean isPaused() { return isPaused; }
     public boolean isGameOver() { return isGameOver; }
@@ -248,5 +357,13 @@ public class Board {
     public int getLinesCleared() { return linesCleared; }
     public Piece getCurrentPiece() { return currentPiece; }
     public Piece getNextPiece() { return nextPiece; }
+    public PieceGenerator getPieceGenerator() { return pieceQueue.getGenerator(); }
+    public long getVersion() { return version; }
+    public long getGridVersion() { return gridVersion; }
+
+    /**
+     * Forma na posição i da prévia (0 = próxima peça), até PREVIEW_SIZE - 1.
+     */
+    public Shape.Tetrominoe getPreviewShape(int i) { return pieceQueue.peek(i); }
 }
 
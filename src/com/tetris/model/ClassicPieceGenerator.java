@@ -0,0 +1,37 @@
+package com.tetris.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Modo clássico: cada peça é sorteada de forma uniforme e independente entre as 7 formas.
+ */
+public class ClassicPieceGenerator implements PieceGenerator {
+
+    private static final Shape.Tetrominoe[] VALUES = Shape.Tetrominoe.values();
+
+    private final Xoroshiro128 random;
+
+    public ClassicPieceGenerator(long seed) {
+        random = new Xoroshiro128(seed);
+    }
+
+    @Override
+    public Shape.Tetrominoe next() {
+        return VALUES[random.nextInt(7) + 1];
+    }
+
+    @Override
+    public void reset(long seed) {
+        random.setSeed(seed);
+    }
+
+    @Override
+    public void writeState(ByteBuffer out) {
+        random.writeState(out);
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        random.readState(in);
+    }
+}
@@ -0,0 +1,170 @@
+package com.tetris.model;
+
+import java.util.Arrays;
+
+/**
+ * Cópia imutável do estado do jogo publicada pela thread de lógica para a View.
+ * A View só lê snapshots; o {@link Board} é alterado apenas pela thread do game loop.
+ * Comparando dois snapshots é possível saber quais células e quais campos mudaram,
+ * para que cada painel redesenhe apenas as regiões afetadas.
+ */
+public final class GameSnapshot {
+
+    // --- Campos que podem mudar entre dois snapshots (ver changedFields) ---
+    public static final int CHANGED_SCORE = 1;
+    public static final int CHANGED_HIGH_SCORE = 1 << 1;
+    public static final int CHANGED_LINES = 1 << 2;
+    public static final int CHANGED_LEVEL = 1 << 3;
+    public static final int CHANGED_PREVIEW = 1 << 4;
+    public static final int CHANGED_STATUS = 1 << 5; // iniciado, pausado, game over ou peça fantasma
+
+    private static final Shape.Tetrominoe[] SHAPES = Shape.Tetrominoe.values();
+
+    private final byte[] cells;
+    private final Shape.Tetrominoe pieceShape;
+    private final int pieceRotation;
+    private final int pieceX;
+    private final int pieceY;
+    private final int ghostY;
+    private final Shape.Tetrominoe[] preview;
+
+    private final boolean started;
+    private final boolean paused;
+    private final boolean gameOver;
+    private final boolean ghostPieceEnabled;
+
+    private final int score;
+    private final int highScore;
+    private final int level;
+    private final int linesCleared;
+
+    private final long version;
+    private final long gridVersion;
+    private final long frame;
+
+    private GameSnapshot(Board board, long frame) {
+        this.cells = new byte[Board.BOARD_WIDTH * Board.BOARD_HEIGHT];
+        board.getGrid().copyCellsTo(cells);
+
+        Piece piece = board.getCurrentPiece();
+        this.pieceShape = piece.getShape();
+        this.pieceRotation = piece.getRotation();
+        this.pieceX = piece.getX();
+        this.pieceY = piece.getY();
+        this.ghostY = board.isStarted() && pieceShape != Shape.Tetrominoe.NoShape ? board.getGhostPieceY() : pieceY;
+
+        this.preview = new Shape.Tetrominoe[Board.PREVIEW_SIZE];
+        for (int i = 0; i < preview.length; i++) {
+            preview[i] = board.getPreviewShape(i);
+        }
+
+        this.started = board.isStarted();
+        this.paused = board.isPaused();
+        this.gameOver = board.isGameOver();
+        this.ghostPieceEnabled = board.isGhostPieceEnabled();
+
+        this.score = board.getScore();
+        this.highScore = board.getHighScore();
+        this.level = board.getLevel();
+        this.linesCleared = board.getLinesCleared();
+
+        this.version = board.getVersion();
+        this.gridVersion = board.getGridVersion();
+        this.frame = frame;
+    }
+
+    /**
+     * Tira um snapshot do Board. Deve ser chamado na thread que altera o Board.
+     */
+    public static GameSnapshot of(Board board, long frame) {
+        return new GameSnapshot(board, frame);
+    }
+
+    public Shape.Tetrominoe shapeAt(int x, int y) {
+        return SHAPES[cells[y * Board.BOARD_WIDTH + x]];
+    }
+
+    /**
+     * Campos alterados em relação ao snapshot anterior, como combinação das constantes CHANGED_*.
+     */
+    public int changedFields(GameSnapshot prev) {
+        int changed = 0;
+        if (score != prev.score) changed |= CHANGED_SCORE;
+        if (highScore != prev.highScore) changed |= CHANGED_HIGH_SCORE;
+        if (linesCleared != prev.linesCleared) changed |= CHANGED_LINES;
+        if (level != prev.level) changed |= CHANGED_LEVEL;
+        if (preview[0] != prev.preview[0]) changed |= CHANGED_PREVIEW;
+        if (started != prev.started || paused != prev.paused || gameOver != prev.gameOver
+                || ghostPieceEnabled != prev.ghostPieceEnabled) {
+            changed |= CHANGED_STATUS;
+        }
+        return changed;
+    }
+
+    /**
+     * Marca as células do tabuleiro que mudaram em relação ao snapshot anterior:
+     * blocos assentados ou removidos, e as posições antiga e nova da peça e da peça fantasma.
+     * @param rowMasks destino com BOARD_HEIGHT posições; o bit x de rowMasks[y] indica a célula (x, y)
+     */
+    public void changedCells(GameSnapshot prev, int[] rowMasks) {
+        Arrays.fill(rowMasks, 0);
+        if (gridVersion != prev.gridVersion) {
+            for (int y = 0; y < Board.BOARD_HEIGHT; y++) {
+                int base = y * Board.BOARD_WIDTH;
+                for (int x = 0; x < Board.BOARD_WIDTH; x++) {
+                    if (cells[base + x] != prev.cells[base + x]) {
+                        rowMasks[y] |= 1 << x;
+                    }
+                }
+            }
+        }
+        prev.markPiece(rowMasks);
+        markPiece(rowMasks);
+    }
+
+    private void markPiece(int[] rowMasks) {
+        if (!started || pieceShape == Shape.Tetrominoe.NoShape) {
+            return;
+        }
+        for (int i = 0; i < 4; i++) {
+            mark(rowMasks, pieceCellX(i), pieceCellY(i));
+            if (ghostPieceEnabled) {
+                mark(rowMasks, pieceCellX(i), ghostCellY(i));
+            }
+        }
+    }
+
+    private static void mark(int[] rowMasks, int x, int y) {
+        if (x >= 0 && x < Board.BOARD_WIDTH && y >= 0 && y < Board.BOARD_HEIGHT) {
+            rowMasks[y] |= 1 << x;
+        }
+    }
+
+    // --- Peça atual: coordenadas absolutas da célula i no tabuleiro ---
+    public Shape.Tetrominoe getPieceShape() { return pieceShape; }
+    public int getPieceRotation() { return pieceRotation; }
+    public int getPieceX() { return pieceX; }
+    public int getPieceY() { return pieceY; }
+    public int pieceCellX(int i) { return pieceX + Shape.cellX(pieceShape, pieceRotation, i); }
+    public int pieceCellY(int i) { return pieceY - Shape.cellY(pieceShape, pieceRotation, i); }
+    public int ghostCellY(int i) { return ghostY - Shape.cellY(pieceShape, pieceRotation, i); }
+    public int getGhostPieceY() { return ghostY; }
+
+    /**
+     * Forma na posição i da prévia (0 = próxima peça).
+     */
+    public Shape.Tetrominoe getPreviewShape(int i) { return preview[i]; }
+    public Shape.Tetrominoe getNextShape() { return preview[0]; }
+
+    public boolean isStarted() { return started; }
+    public boolean isPaused() { return paused; }
+    public boolean isGameOver() { return gameOver; }
+    public boolean isGhostPieceEnabled() { return ghostPieceEnabled; }
+    public int getScore() { return score; }
+    public int getHighScore() { return highScore; }
+    public int getLevel() { return level; }
+    public int getLinesCleared() { return linesCleared; }
+    public long getVersion() { return version; }
+    public long getGridVersion() { return gridVersion; }
+    public long getFrame() { return frame; }
+}
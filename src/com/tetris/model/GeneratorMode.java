@@ -0,0 +1,38 @@
+package com.tetris.model;
+
+/**
+ * Modos de geração de peças disponíveis.
+ */
+public enum GeneratorMode {
+    CLASSIC, BAG;
+
+    public PieceGenerator create(long seed) {
+        return this == BAG ? new BagPieceGenerator(seed) : new ClassicPieceGenerator(seed);
+    }
+
+    /**
+     * Modo de um gerador criado por {@link #create(long)}, ou null para outros geradores
+     * (ex: uma sequência fixa), que não podem ser recriados só a partir da semente.
+     */
+    public static GeneratorMode of(PieceGenerator generator) {
+        if (generator instanceof BagPieceGenerator) {
+            return BAG;
+        }
+        if (generator instanceof ClassicPieceGenerator) {
+            return CLASSIC;
+        }
+        return null;
+    }
+
+    /**
+     * Lê o modo pelo nome (ex: "bag"), usando o clássico se o nome for desconhecido.
+     */
+    public static GeneratorMode fromName(String name) {
+        for (GeneratorMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        return CLASSIC;
+    }
+}
@@ -0,0 +1,32 @@
+package com.tetris.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fonte das próximas peças do jogo.
+ * O Board recebe o gerador por injeção, de forma que uma partida pode ser
+ * reproduzida exatamente a partir da mesma semente.
+ */
+public interface PieceGenerator {
+
+    /**
+     * Retorna a próxima forma (nunca NoShape).
+     */
+    Shape.Tetrominoe next();
+
+    /**
+     * Reinicia o gerador com uma nova semente.
+     */
+    void reset(long seed);
+
+    /**
+     * Grava o estado interno (posição na sequência, estado do RNG) para um keyframe de replay.
+     * O tamanho gravado é sempre o mesmo para um mesmo gerador.
+     */
+    void writeState(ByteBuffer out);
+
+    /**
+     * Restaura um estado gravado por {@link #writeState(ByteBuffer)}.
+     */
+    void readState(ByteBuffer in);
+}
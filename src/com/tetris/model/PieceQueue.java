@@ -0,0 +1,78 @@
+package com.tetris.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fila circular com as próximas N peças, alimentada por um {@link PieceGenerator}.
+ * Permite à View mostrar a prévia sem alocar nada a cada spawn.
+ */
+public class PieceQueue {
+
+
+    private final PieceGenerator generator;
+    private final Shape.Tetrominoe[] queue;
+    private int head;
+
+    public PieceQueue(PieceGenerator generator, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("A fila de prévia precisa de ao menos uma peça");
+        }
+        this.generator = generator;
+        this.queue = new Shape.Tetrominoe[size];
+        refill();
+    }
+
+    /**
+     * Descarta a prévia atual e preenche a fila novamente a partir do gerador.
+     */
+    public void refill() {
+        for (int i = 0; i < queue.length; i++) {
+            queue[i] = generator.next();
+        }
+        head = 0;
+    }
+
+    /**
+     * Retira a próxima peça e completa a fila com uma nova.
+     */
+    public Shape.Tetrominoe next() {
+        Shape.Tetrominoe shape = queue[head];
+        queue[head] = generator.next();
+        head = head + 1 == queue.length ? 0 : head + 1;
+        return shape;
+    }
+
+    /**
+     * Peça na posição i da prévia (0 = a próxima).
+     */
+    public Shape.Tetrominoe peek(int i) {
+        int index = head + i;
+        return queue[index >= queue.length ? index - queue.length : index];
+    }
+
+    public int size() {
+        return queue.length;
+    }
+
+    /**
+     * Grava a prévia (a partir da próxima peça) e o estado do gerador.
+     */
+    public void writeState(ByteBuffer out) {
+        for (int i = 0; i < queue.length; i++) {
+            out.put((byte) peek(i).ordinal());
+        }
+        generator.writeState(out);
+    }
+
+    public void readState(ByteBuffer in) {
+        for (int i = 0; i < queue.length; i++) {
+            queue[i] = Shape.shapeOf(in.get());
+        }
+        head = 0;
+        generator.readState(in);
+    }
+
+    public PieceGenerator getGenerator() {
+        return generator;
+    }
+}
@@ -0,0 +1,235 @@
+package com.tetris.model;
+
+import java.util.Arrays;
+
+/**
+ * Gerador de encaixes: todas as posições em que a peça pode travar a partir de onde está,
+ * com a sequência de movimentos que leva até cada uma. Base para dicas, bots e análise.
+ * <p>
+ * Faz uma busca em largura sobre (x, y, rotação) com os mesmos movimentos do jogador
+ * (esquerda, direita, girar, descer uma linha) e a mesma regra de colisão do {@link Board}
+ * ({@link Board#canMoveTo(BitGrid, Shape.Tetrominoe, int, int, int)}), sem alterar o Board nem
+ * a grelha. Uma posição trava quando a peça não pode mais descer; chegando nela, o hard drop fixa
+ * a peça ali. Rotações que ocupam as mesmas células (O, e I, S e Z giradas em 180°) contam como
+ * um único encaixe.
+ * <p>
+ * Os conjuntos de visitados são bitsets e a fila, os pais e os resultados são arrays, todos
+ * alocados na criação: cada {@link #generate} roda sem alocar, em poucos microssegundos.
+ * Uma instância não é thread-safe; use uma por thread.
+ */
+public final class PlacementGenerator {
+
+    /**
+     * Movimento do caminho até um encaixe. O caminho termina com um hard drop, que não é listado.
+     */
+    public enum Move {
+        LEFT, RIGHT, ROTATE_LEFT, ROTATE_RIGHT, SOFT_DROP
+    }
+
+    private static final Move[] MOVES = Move.values();
+    private static final int WIDTH = Board.BOARD_WIDTH;
+    // A origem da peça é sempre uma das suas células (toda forma contém (0, 0)), então x fica nas
+    // colunas do tabuleiro e y entre o chão e pouco acima da linha de surgimento
+    private static final int Y_SPAN = Board.BOARD_HEIGHT + 4;
+    private static final int ROTATION_STATES = WIDTH * Y_SPAN;
+    private static final int STATES = Shape.ROTATIONS * ROTATION_STATES;
+    /** Limite de encaixes distintos de uma peça (e de movimentos num caminho). */
+    public static final int MAX_PLACEMENTS = STATES;
+
+    // Por (forma, rotação): a menor rotação com as mesmas células e o deslocamento da origem até ela
+    private static final int SHAPE_COUNT = Shape.Tetrominoe.values().length;
+    private static final int[] CANONICAL_ROTATION = new int[SHAPE_COUNT * Shape.ROTATIONS];
+    private static final int[] CANONICAL_DX = new int[SHAPE_COUNT * Shape.ROTATIONS];
+    private static final int[] CANONICAL_DY = new int[SHAPE_COUNT * Shape.ROTATIONS];
+
+    static {
+        for (Shape.Tetrominoe shape : Shape.Tetrominoe.values()) {
+            for (int r = 0; r < Shape.ROTATIONS; r++) {
+                int e = shape.ordinal() * Shape.ROTATIONS + r;
+                for (int c = 0; c <= r; c++) {
+                    int dx = Shape.minX(shape, r) - Shape.minX(shape, c);
+                    int dy = Shape.minY(shape, r) - Shape.minY(shape, c);
+                    if (sameCells(shape, r, c, dx, dy)) {
+                        CANONICAL_ROTATION[e] = c;
+                        // Células de r na origem (x, y) = células de c na origem (x + dx, y - dy)
+                        CANONICAL_DX[e] = dx;
+                        CANONICAL_DY[e] = -dy;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private final long[] visited = new long[(STATES + 63) >>> 6];
+    private final long[] locked = new long[(STATES + 63) >>> 6];
+    private final int[] queue = new int[STATES];
+    private final int[] parent = new int[STATES];
+    private final byte[] parentMove = new byte[STATES];
+    private final int[] placements = new int[MAX_PLACEMENTS]; // estado em que cada encaixe foi alcançado
+
+    private Shape.Tetrominoe shape = Shape.Tetrominoe.NoShape;
+    private int count;
+
+    private static boolean sameCells(Shape.Tetrominoe shape, int r, int c, int dx, int dy) {
+        for (int i = 0; i < 4; i++) {
+            int x = Shape.cellX(shape, r, i) - dx;
+            int y = Shape.cellY(shape, r, i) - dy;
+            boolean found = false;
+            for (int j = 0; j < 4 && !found; j++) {
+                found = Shape.cellX(shape, c, j) == x && Shape.cellY(shape, c, j) == y;
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encaixes da peça atual do Board, a partir da posição em que ela está.
+     * @return número de encaixes distintos (0 se não houver peça em jogo)
+     */
+    public int generate(Board board) {
+        Piece piece = board.getCurrentPiece();
+        return generate(board.getGrid(), piece.getShape(), piece.getRotation(), piece.getX(), piece.getY());
+    }
+
+    /**
+     * Encaixes de uma peça sobre uma grelha qualquer, partindo da posição informada.
+     * @param y linha da origem da peça, no máximo {@link Board#BOARD_HEIGHT}
+     * @return número de encaixes distintos (0 se a posição inicial já colide)
+     */
+    public int generate(BitGrid grid, Shape.Tetrominoe shape, int rotation, int x, int y) {
+        this.shape = shape;
+        this.count = 0;
+        if (shape == Shape.Tetrominoe.NoShape || y > Board.BOARD_HEIGHT
+                || !Board.canMoveTo(grid, shape, rotation, x, y)) {
+            return 0;
+        }
+        Arrays.fill(visited, 0L);
+        Arrays.fill(locked, 0L);
+
+        int start = state(rotation, x, y);
+        mark(visited, start);
+        parent[start] = -1;
+        queue[0] = start;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int current = queue[head++];
+            int r = current / ROTATION_STATES;
+            int cy = current % ROTATION_STATES / WIDTH;
+            int cx = current % WIDTH;
+
+            if (Board.canMoveTo(grid, shape, r, cx, cy - 1)) {
+                int below = state(r, cx, cy - 1);
+                if (!isMarked(visited, below)) {
+                    tail = enqueue(current, Move.SOFT_DROP, below, tail);
+                }
+            } else {
+                addPlacement(current, r, cx, cy);
+            }
+            tail = visit(grid, current, Move.LEFT, r, cx - 1, cy, tail);
+            tail = visit(grid, current, Move.RIGHT, r, cx + 1, cy, tail);
+            tail = visit(grid, current, Move.ROTATE_LEFT, Shape.rotatedLeft(r), cx, cy, tail);
+            tail = visit(grid, current, Move.ROTATE_RIGHT, Shape.rotatedRight(r), cx, cy, tail);
+        }
+        return count;
+    }
+
+    /**
+     * Número de encaixes encontrados pela última chamada a {@link #generate}.
+     */
+    public int size() {
+        return count;
+    }
+
+    public Shape.Tetrominoe getShape() {
+        return shape;
+    }
+
+    // --- Encaixe i: posição da peça ao travar (como em Piece) ---
+
+    public int getRotation(int i) {
+        return placements[i] / ROTATION_STATES;
+    }
+
+    public int getX(int i) {
+        return placements[i] % WIDTH;
+    }
+
+    public int getY(int i) {
+        return placements[i] % ROTATION_STATES / WIDTH;
+    }
+
+    /**
+     * Trava a peça no encaixe i sobre a grelha, com as regras do Board: as células acima do topo se
+     * perdem e as linhas completas são removidas ({@link BitGrid#clearFullRows()}).
+     * @param grid grelha de destino (normalmente uma cópia da usada em {@link #generate})
+     * @return número de linhas removidas
+     */
+    public int place(int i, BitGrid grid) {
+        Board.placeCells(grid, shape, getRotation(i), getX(i), getY(i));
+        return grid.clearFullRows();
+    }
+
+    /**
+     * Copia para o destino os movimentos (o menor número possível) que levam a peça da posição
+     * inicial até o encaixe i; depois deles basta um hard drop.
+     * @param out destino com ao menos {@link #MAX_PLACEMENTS} posições
+     * @return número de movimentos
+     */
+    public int getPath(int i, Move[] out) {
+        int length = 0;
+        for (int s = placements[i]; parent[s] >= 0; s = parent[s]) {
+            length++;
+        }
+        int index = length;
+        for (int s = placements[i]; parent[s] >= 0; s = parent[s]) {
+            out[--index] = MOVES[parentMove[s]];
+        }
+        return length;
+    }
+
+    // Estados já visitados são descartados antes do teste de colisão, o passo mais caro
+    private int visit(BitGrid grid, int from, Move move, int rotation, int x, int y, int tail) {
+        if (x < 0 || x >= WIDTH) {
+            return tail;
+        }
+        int next = state(rotation, x, y);
+        if (isMarked(visited, next) || !Board.canMoveTo(grid, shape, rotation, x, y)) {
+            return tail;
+        }
+        return enqueue(from, move, next, tail);
+    }
+
+    private int enqueue(int from, Move move, int next, int tail) {
+        mark(visited, next);
+        parent[next] = from;
+        parentMove[next] = (byte) move.ordinal();
+        queue[tail] = next;
+        return tail + 1;
+    }
+
+    private void addPlacement(int state, int rotation, int x, int y) {
+        int e = shape.ordinal() * Shape.ROTATIONS + rotation;
+        int canonical = state(CANONICAL_ROTATION[e], x + CANONICAL_DX[e], y + CANONICAL_DY[e]);
+        if (!isMarked(locked, canonical)) {
+            mark(locked, canonical);
+            placements[count++] = state;
+        }
+    }
+
+    private static int state(int rotation, int x, int y) {
+        return rotation * ROTATION_STATES + y * WIDTH + x;
+    }
+
+    private static boolean isMarked(long[] bits, int index) {
+        return (bits[index >>> 6] & 1L << index) != 0;
+    }
+
+    private static void mark(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+}
@@ -0,0 +1,52 @@
+package com.tetris.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Modo de sequência fixa: repete ciclicamente uma lista de formas.
+ * Útil para cenários roteirizados, testes de regressão e análise de posições.
+ * A semente escolhe apenas o ponto de partida na sequência.
+ */
+public class SequencePieceGenerator implements PieceGenerator {
+
+    private final Shape.Tetrominoe[] sequence;
+    private int index;
+
+    public SequencePieceGenerator(Shape.Tetrominoe... sequence) {
+        if (sequence.length == 0) {
+            throw new IllegalArgumentException("A sequência de peças não pode ser vazia");
+        }
+        for (Shape.Tetrominoe shape : sequence) {
+            if (shape == Shape.Tetrominoe.NoShape) {
+                throw new IllegalArgumentException("A sequência de peças não pode conter NoShape");
+            }
+        }
+        this.sequence = sequence.clone();
+    }
+
+    @Override
+    public Shape.Tetrominoe next() {
+        Shape.Tetrominoe shape = sequence[index];
+        index = index + 1 == sequence.length ? 0 : index + 1;
+        return shape;
+    }
+
+    @Override
+    public void reset(long seed) {
+        index = (int) Math.floorMod(seed, (long) sequence.length);
+    }
+
+    @Override
+    public void writeState(ByteBuffer out) {
+        out.putInt(index);
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        int newIndex = in.getInt();
+        if (newIndex < 0 || newIndex >= sequence.length) {
+            throw new IllegalArgumentException("Posição inválida na sequência: " + newIndex);
+        }
+        index = newIndex;
+    }
+}
@@ -2,6 +2,8 @@ package com.tetris.model;
 
 /**
  * Enum que define todas as formas dos Tetrominós e a tabela de coordenadas.
+ * Também contém a tabela imutável de rotações (7 formas × 4 rotações),
+ * pré-calculada uma única vez, com as extensões mínimas e máximas de cada rotação.
  */
 public class Shape {
 
@@ -9,8 +11,20 @@ public class Shape {
         NoShape, ZShape, SShape, LineShape, TShape, SquareShape, LShape, MirroredLShape
     }
 
+    public static final int ROTATIONS = 4;
+
     private static int[][][] coordsTable;
 
+    // Tabelas planas indexadas por (forma, rotação, célula) — sem alocação nas consultas
+    private static final Tetrominoe[] SHAPES = Tetrominoe.values();
+    private static final int SHAPE_COUNT = SHAPES.length;
+    private static final int[] CELL_X = new int[SHAPE_COUNT * ROTATIONS * 4];
+    private static final int[] CELL_Y = new int[SHAPE_COUNT * ROTATIONS * 4];
+    private static final int[] MIN_X = new int[SHAPE_COUNT * ROTATIONS];
+    private static final int[] MAX_X = new int[SHAPE_COUNT * ROTATIONS];
+    private static final int[] MIN_Y = new int[SHAPE_COUNT * ROTATIONS];
+    private static final int[] MAX_Y = new int[SHAPE_COUNT * ROTATIONS];
+
     static {
         coordsTable = new int[][][] {
             { { 0, 0 },  { 0, 0 },  { 0, 0 },  { 0, 0 } }, // NoShape
@@ -22,9 +36,68 @@ public class Shape {
             { { -1, -1 },{ 0, -1 }, { 0, 0 },  { 0, 1 } },  // LShape
             { { 1, -1 }, { 0, -1 }, { 0, 0 },  { 0, 1 } }   // MirroredLShape
         };
+
+        for (int s = 0; s < SHAPE_COUNT; s++) {
+            boolean rotates = s != Tetrominoe.SquareShape.ordinal();
+            for (int r = 0; r < ROTATIONS; r++) {
+                int base = (s * ROTATIONS + r) * 4;
+                for (int i = 0; i < 4; i++) {
+                    int x = coordsTable[s][i][0];
+                    int y = coordsTable[s][i][1];
+                    // Cada rotação é a anterior girada no sentido horário: (x, y) -> (y, -x)
+                    for (int k = 0; rotates && k < r; k++) {
+                        int t = x;
+                        x = y;
+                        y = -t;
+                    }
+                    CELL_X[base + i] = x;
+                    CELL_Y[base + i] = y;
+                }
+
+                int e = s * ROTATIONS + r;
+                MIN_X[e] = MAX_X[e] = CELL_X[base];
+                MIN_Y[e] = MAX_Y[e] = CELL_Y[base];
+                for (int i = 1; i < 4; i++) {
+                    MIN_X[e] = Math.min(MIN_X[e], CELL_X[base + i]);
+                    MAX_X[e] = Math.max(MAX_X[e], CELL_X[base + i]);
+                    MIN_Y[e] = Math.min(MIN_Y[e], CELL_Y[base + i]);
+                    MAX_Y[e] = Math.max(MAX_Y[e], CELL_Y[base + i]);
+                }
+            }
+        }
     }
 
     public static int[][][] getCoordsTable() {
         return coordsTable;
     }
+
+    /**
+     * Forma de um ordinal lido de um estado gravado.
+     * @throws IllegalArgumentException se o ordinal não corresponder a nenhuma forma
+     */
+    public static Tetrominoe shapeOf(int ordinal) {
+        if (ordinal < 0 || ordinal >= SHAPE_COUNT) {
+            throw new IllegalArgumentException("Forma inválida: " + ordinal);
+        }
+        return SHAPES[ordinal];
+    }
+
+    // --- Consultas à tabela de rotações ---
+
+    public static int cellX(Tetrominoe shape, int rotation, int index) {
+        return CELL_X[(shape.ordinal() * ROTATIONS + rotation) * 4 + index];
+    }
+
+    public static int cellY(Tetrominoe shape, int rotation, int index) {
+        return CELL_Y[(shape.ordinal() * ROTATIONS + rotation) * 4 + index];
+    }
+
+    public static int minX(Tetrominoe shape, int rotation) { return MIN_X[shape.ordinal() * ROTATIONS + rotation]; }
+    public static int maxX(Tetrominoe shape, int rotation) { return MAX_X[shape.ordinal() * ROTATIONS + rotation]; }
+    public static int minY(Tetrominoe shape, int rotation) { return MIN_Y[shape.ordinal() * ROTATIONS + rotation]; }
+    public static int maxY(Tetrominoe shape, int rotation) { return MAX_Y[shape.ordinal() * ROTATIONS + rotation]; }
+
+    // Rotação resultante de girar para a direita (horário) ou para a esquerda (anti-horário)
+    public static int rotatedRight(int rotation) { return (rotation + 1) & 3; }
+    public static int rotatedLeft(int rotation) { return (rotation + 3) & 3; }
 }
@@ -0,0 +1,81 @@
+package com.tetris.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Gerador pseudoaleatório xoroshiro128++ compartilhado pelos geradores de peças.
+ * É rápido, não aloca e o estado (dois longs) pode ser lido e restaurado,
+ * o que permite reproduzir uma partida a partir da semente.
+ */
+public final class Xoroshiro128 {
+
+    private long s0;
+    private long s1;
+
+    public Xoroshiro128(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * Expande a semente de 64 bits com SplitMix64, como recomendado pelos autores do algoritmo.
+     */
+    public void setSeed(long seed) {
+        long z = seed;
+        s0 = mix(z += 0x9E3779B97F4A7C15L);
+        s1 = mix(z + 0x9E3779B97F4A7C15L);
+        if ((s0 | s1) == 0) {
+            s1 = 1;
+        }
+    }
+
+    public long nextLong() {
+        long a = s0;
+        long b = s1;
+        long result = Long.rotateLeft(a + b, 17) + a;
+        b ^= a;
+        s0 = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+        s1 = Long.rotateLeft(b, 28);
+        return result;
+    }
+
+    /**
+     * Inteiro uniforme em [0, bound), sem o viés de {@code abs(nextInt()) % bound}
+     * (método de multiplicação com rejeição de Lemire).
+     */
+    public int nextInt(int bound) {
+        long m = ((nextLong() >>> 32) & 0xFFFFFFFFL) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = ((nextLong() >>> 32) & 0xFFFFFFFFL) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    // --- Estado, para snapshots e replays ---
+    public long getState0() { return s0; }
+    public long getState1() { return s1; }
+
+    public void setState(long s0, long s1) {
+        this.s0 = s0;
+        this.s1 = s1;
+    }
+
+    public void writeState(ByteBuffer out) {
+        out.putLong(s0).putLong(s1);
+    }
+
+    public void readState(ByteBuffer in) {
+        s0 = in.getLong();
+        s1 = in.getLong();
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
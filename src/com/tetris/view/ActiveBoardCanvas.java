@@ -0,0 +1,142 @@
+package com.tetris.view;
+
+import com.tetris.model.Board;
+import com.tetris.model.GameSnapshot;
+import com.tetris.model.Theme;
+
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Tabuleiro com renderização ativa (opcional, -Dtetris.activeRender=true).
+ * Em vez de esperar o RepaintManager do Swing, o próprio game loop desenha cada frame num
+ * {@link BufferStrategy} de 2 ou 3 buffers e o apresenta com show() (troca de página quando
+ * o sistema suporta, cópia caso contrário). As telas de pausa e game over são desenhadas aqui
+ * também; o Swing continua responsável apenas pelo menu inicial e pelos botões laterais.
+ */
+public class ActiveBoardCanvas extends Canvas {
+
+    public static final int DEFAULT_BUFFERS = 3;
+
+    private final int bufferCount;
+    private final BoardRenderer renderer = new BoardRenderer(this);
+    private final FrameStats stats = new FrameStats();
+    private final boolean logStats = Boolean.getBoolean("tetris.frameStats");
+
+    private volatile BufferStrategy strategy;
+    private volatile Theme theme = Theme.AVAILABLE_THEMES[0];
+    private volatile Runnable exposeListener;
+
+    /**
+     * @param bufferCount 2 (double buffering) ou 3 (triple buffering)
+     */
+    public ActiveBoardCanvas(int bufferCount) {
+        this.bufferCount = Math.max(2, Math.min(3, bufferCount));
+        setIgnoreRepaint(true);
+        setFocusable(false); // as teclas continuam indo para o GamePanel
+        setBackground(Color.BLACK);
+        setPreferredSize(new Dimension(BoardRenderer.SQUARE_SIZE * Board.BOARD_WIDTH,
+                BoardRenderer.SQUARE_SIZE * Board.BOARD_HEIGHT));
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        createBufferStrategy(bufferCount);
+        BufferStrategy created = getBufferStrategy();
+        BufferCapabilities caps = created.getCapabilities();
+        System.out.println("ActiveBoardCanvas: " + bufferCount + " buffers, page flipping: " + caps.isPageFlipping());
+        strategy = created;
+    }
+
+    @Override
+    public void removeNotify() {
+        strategy = null;
+        super.removeNotify();
+    }
+
+    /**
+     * Chamado quando a janela precisa ser redesenhada (ex: foi descoberta); o listener deve pedir
+     * um novo frame ao game loop.
+     */
+    public void setExposeListener(Runnable listener) {
+        this.exposeListener = listener;
+    }
+
+    public void updateTheme(Theme theme) {
+        this.theme = theme;
+    }
+
+    public FrameStats getFrameStats() {
+        return stats;
+    }
+
+    // A AWT chama paint na EDT quando a área é exposta; o desenho de verdade fica com o game loop
+    @Override
+    public void paint(Graphics g) {
+        Runnable listener = exposeListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    @Override
+    public void update(Graphics g) {
+        paint(g);
+    }
+
+    /**
+     * Desenha e apresenta um frame. Chamado na thread do game loop.
+     */
+    public void render(GameSnapshot state) {
+        BufferStrategy bs = strategy;
+        int width = getWidth();
+        int height = getHeight();
+        if (bs == null || width <= 0 || height <= 0) {
+            return;
+        }
+
+        Theme currentTheme = theme;
+        long start = System.nanoTime();
+        try {
+            do {
+                do {
+                    Graphics g = bs.getDrawGraphics();
+                    try {
+                        draw(g, state, currentTheme, width, height);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (bs.contentsRestored());
+                bs.show();
+            } while (bs.contentsLost());
+        } catch (IllegalStateException e) {
+            // O componente foi removido (ex: janela fechando) entre a leitura do strategy e o show()
+            return;
+        }
+        Toolkit.getDefaultToolkit().sync();
+        stats.record(start, System.nanoTime());
+
+        if (logStats && stats.getTotalFrames() % FrameStats.WINDOW == 0) {
+            System.out.println("ActiveBoardCanvas: " + stats);
+        }
+    }
+
+    private void draw(Graphics g, GameSnapshot state, Theme currentTheme, int width, int height) {
+        renderer.render(g, state, currentTheme, width, height);
+        if (!state.isStarted()) {
+            return;
+        }
+        OverlayTexts texts = OverlayTexts.forTheme(currentTheme);
+        if (state.isGameOver()) {
+            texts.drawGameOver(g, width, height);
+        } else if (state.isPaused()) {
+            texts.drawPaused(g, width, height);
+        }
+    }
+}
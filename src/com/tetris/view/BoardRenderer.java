@@ -0,0 +1,151 @@
+package com.tetris.view;
+
+import com.tetris.model.Board;
+import com.tetris.model.GameSnapshot;
+import com.tetris.model.Shape;
+import com.tetris.model.Theme;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Desenho do tabuleiro a partir de um {@link GameSnapshot}, usado tanto pelo {@link BoardPanel}
+ * (Swing) quanto pelo {@link ActiveBoardCanvas} (renderização ativa).
+ * Fundo, grade e blocos já assentados ficam numa imagem fora da tela que só é refeita quando a
+ * grelha muda (peça assentada ou linhas removidas) ou o tema muda; cada frame apenas compõe
+ * essa imagem com a peça atual e a peça fantasma, usando sprites pré-renderizados.
+ * Cada instância deve ser usada sempre pela mesma thread.
+ */
+final class BoardRenderer {
+
+    static final int SQUARE_SIZE = 32; // reduzido de 40 para 32 para diminuir o tamanho da janela
+
+    private final Component target;
+
+    // Camadas em cache
+    private BufferedImage gridLayer;
+    private BufferedImage lockedLayer;
+    private Theme layerTheme;
+    private long layerGridVersion = -1;
+    private TileSprites sprites;
+
+    /**
+     * @param target componente onde o tabuleiro é exibido (usado para criar imagens compatíveis)
+     */
+    BoardRenderer(Component target) {
+        this.target = target;
+    }
+
+    /**
+     * Indica se as camadas e os sprites já foram criados (ou seja, se já houve um desenho completo).
+     */
+    boolean isReady() {
+        return sprites != null;
+    }
+
+    void render(Graphics g, GameSnapshot state, Theme theme, int width, int height) {
+        drawLockedLayer(g, state, theme, width, height);
+        if (sprites == null) {
+            return;
+        }
+
+        // Desenha a peça fantasma antes da peça real
+        drawGhostPiece(g, state);
+        drawCurrentPiece(g, state);
+    }
+
+    private void drawLockedLayer(Graphics g, GameSnapshot state, Theme theme, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        boolean themeChanged = layerTheme != theme;
+        boolean sizeChanged = lockedLayer == null || lockedLayer.getWidth() != width || lockedLayer.getHeight() != height;
+        if (themeChanged || sizeChanged) {
+            sprites = TileSprites.forTheme(theme, SQUARE_SIZE);
+            gridLayer = TileSprites.createLayer(target, width, height, false);
+            lockedLayer = TileSprites.createLayer(target, width, height, false);
+            Graphics2D lg = gridLayer.createGraphics();
+            drawBoardBackground(lg, theme, width, height);
+            drawGrid(lg, theme, width, height);
+            lg.dispose();
+            layerTheme = theme;
+            layerGridVersion = -1;
+        }
+
+        if (layerGridVersion != state.getGridVersion()) {
+            Graphics2D lg = lockedLayer.createGraphics();
+            lg.drawImage(gridLayer, 0, 0, null);
+            drawPlacedPieces(lg, state);
+            lg.dispose();
+            layerGridVersion = state.getGridVersion();
+        }
+
+        g.drawImage(lockedLayer, 0, 0, null);
+    }
+
+    private void drawBoardBackground(Graphics g, Theme theme, int width, int height) {
+        g.setColor(theme.boardBackground());
+        g.fillRect(0, 0, width, height);
+    }
+
+    private void drawGrid(Graphics g, Theme theme, int width, int height) {
+        g.setColor(theme.grid());
+        for (int i = 0; i <= Board.BOARD_WIDTH; i++) {
+            g.drawLine(i * SQUARE_SIZE, 0, i * SQUARE_SIZE, height);
+        }
+        for (int i = 0; i <= Board.BOARD_HEIGHT; i++) {
+            g.drawLine(0, i * SQUARE_SIZE, width, i * SQUARE_SIZE);
+        }
+    }
+
+    private void drawPlacedPieces(Graphics g, GameSnapshot state) {
+        for (int i = 0; i < Board.BOARD_HEIGHT; i++) {
+            for (int j = 0; j < Board.BOARD_WIDTH; j++) {
+                Shape.Tetrominoe shape = state.shapeAt(j, i);
+                if (shape != Shape.Tetrominoe.NoShape) {
+                    drawSquare(g, j * SQUARE_SIZE, (Board.BOARD_HEIGHT - 1 - i) * SQUARE_SIZE, shape, false);
+                }
+            }
+        }
+    }
+
+    private void drawCurrentPiece(Graphics g, GameSnapshot state) {
+        if (state.isStarted() && state.getPieceShape() != Shape.Tetrominoe.NoShape) {
+            for (int i = 0; i < 4; i++) {
+                int x = state.pieceCellX(i);
+                int y = state.pieceCellY(i);
+                if (y < Board.BOARD_HEIGHT) {
+                    drawSquare(g, x * SQUARE_SIZE, (Board.BOARD_HEIGHT - 1 - y) * SQUARE_SIZE, state.getPieceShape(), false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Desenha a peça fantasma na sua posição final.
+     */
+    private void drawGhostPiece(Graphics g, GameSnapshot state) {
+        if (!state.isGhostPieceEnabled() || !state.isStarted()) {
+            return;
+        }
+
+        if (state.getPieceShape() == Shape.Tetrominoe.NoShape) {
+            return;
+        }
+
+        for (int i = 0; i < 4; i++) {
+            int x = state.pieceCellX(i);
+            int y = state.ghostCellY(i);
+            if (y < Board.BOARD_HEIGHT) {
+                drawSquare(g, x * SQUARE_SIZE, (Board.BOARD_HEIGHT - 1 - y) * SQUARE_SIZE, state.getPieceShape(), true);
+            }
+        }
+    }
+
+    private void drawSquare(Graphics g, int x, int y, Shape.Tetrominoe shape, boolean isGhost) {
+        g.drawImage(isGhost ? sprites.ghostTile(shape) : sprites.tile(shape), x, y, null);
+    }
+}
@@ -0,0 +1,86 @@
+package com.tetris.view;
+
+import com.tetris.model.Theme;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.TexturePaint;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Fundo "camuflado" (xadrez de quadrados de 40px) usado pelo painel lateral,
+ * pelo painel do botão de histórico e pelo diálogo de histórico.
+ * O padrão de 80x80 é desenhado uma única vez por tema num TexturePaint;
+ * preencher um painel inteiro passa a ser um único fillRect.
+ */
+final class CamouflageTexture {
+
+    static final int CELL_SIZE = 40;
+
+    // Cores originais do camuflado verde-oliva (tema Exército Brasileiro)
+    private static final Color OLIVE = new Color(60, 68, 50);
+    private static final Color DARK_OLIVE = new Color(40, 46, 35);
+
+    private static final Map<Theme, TexturePaint> CACHE = new IdentityHashMap<>();
+
+    private CamouflageTexture() {}
+
+    /**
+     * Textura do tema (criada na primeira chamada). Deve ser usado na EDT.
+     */
+    static TexturePaint paint(Theme theme) {
+        Theme key = theme == null ? Theme.CLASSIC_DARK : theme;
+        TexturePaint paint = CACHE.get(key);
+        if (paint == null) {
+            paint = createPaint(lightColor(key), darkColor(key));
+            CACHE.put(key, paint);
+        }
+        return paint;
+    }
+
+    /**
+     * Preenche o retângulo (0, 0, width, height) com o camuflado do tema.
+     * O padrão fica ancorado na origem do componente, como o desenho original.
+     */
+    static void fill(Graphics2D g, Theme theme, int width, int height) {
+        Paint previous = g.getPaint();
+        g.setPaint(paint(theme));
+        g.fillRect(0, 0, width, height);
+        g.setPaint(previous);
+    }
+
+    // O tema do Exército mantém o verde-oliva original; os demais usam tons do próprio fundo
+    private static Color lightColor(Theme theme) {
+        if (theme == Theme.CLASSIC_DARK) return OLIVE;
+        return blend(theme.uiBackground(), Color.WHITE, 0.15f);
+    }
+
+    private static Color darkColor(Theme theme) {
+        if (theme == Theme.CLASSIC_DARK) return DARK_OLIVE;
+        return theme.uiBackground();
+    }
+
+    private static Color blend(Color from, Color to, float amount) {
+        return new Color(
+                Math.round(from.getRed() + (to.getRed() - from.getRed()) * amount),
+                Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * amount),
+                Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * amount));
+    }
+
+    private static TexturePaint createPaint(Color light, Color dark) {
+        int size = 2 * CELL_SIZE;
+        BufferedImage tile = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = tile.createGraphics();
+        g.setColor(dark);
+        g.fillRect(0, 0, size, size);
+        g.setColor(light);
+        g.fillRect(0, 0, CELL_SIZE, CELL_SIZE);
+        g.fillRect(CELL_SIZE, CELL_SIZE, CELL_SIZE, CELL_SIZE);
+        g.dispose();
+        return new TexturePaint(tile, new Rectangle(0, 0, size, size));
+    }
+}
@@ -0,0 +1,82 @@
+package com.tetris.view;
+
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fontes usadas pelos painéis, criadas uma única vez.
+ * A Orbitron-Black.ttf embutida é lida do classpath na primeira vez que um título é pedido;
+ * se não estiver disponível, os títulos voltam para Arial.
+ */
+final class Fonts {
+
+    private static final String ORBITRON_PATH = "/com/tetris/view/resources/fonts/Orbitron-Black.ttf";
+
+    // --- Painel lateral ---
+    static final Font INFO_TITLE = new Font("Consolas", Font.PLAIN, 13);
+    static final Font INFO_TITLE_SMALL = new Font("Consolas", Font.PLAIN, 11);
+    static final Font INFO_VALUE = new Font("Consolas", Font.BOLD, 22);
+    static final Font INFO_VALUE_SMALL = new Font("Consolas", Font.BOLD, 20);
+    static final Font INFO_HINT = new Font("Consolas", Font.BOLD, 14);
+
+    // --- Overlay (menu, pausa, game over) ---
+    static final Font MENU_PROMPT = new Font("Arial", Font.BOLD, 18);
+    static final Font MENU_TEXT = new Font("Arial", Font.PLAIN, 18);
+    static final Font CONTROLS_HEADER = new Font("Arial", Font.BOLD, 14);
+    static final Font CONTROLS_TEXT = new Font("Arial", Font.PLAIN, 13);
+
+    private static final Map<Font, FontMetrics> METRICS = new HashMap<>();
+    private static Graphics2D metricsGraphics;
+
+    private Fonts() {}
+
+    /**
+     * Fonte dos títulos grandes (TETRIS, PAUSADO, GAME OVER).
+     */
+    static Font title() {
+        return TitleHolder.TITLE;
+    }
+
+    /**
+     * Métricas da fonte, calculadas uma vez e reaproveitadas.
+     */
+    static synchronized FontMetrics metrics(Font font) {
+        FontMetrics metrics = METRICS.get(font);
+        if (metrics == null) {
+            if (metricsGraphics == null) {
+                metricsGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+                metricsGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            }
+            metrics = metricsGraphics.getFontMetrics(font);
+            METRICS.put(font, metrics);
+        }
+        return metrics;
+    }
+
+    // Carregada sob demanda (idiom do holder): o .ttf só é lido quando o primeiro título é desenhado
+    private static final class TitleHolder {
+        static final Font TITLE = loadTitleFont(36f);
+    }
+
+    private static Font loadTitleFont(float size) {
+        try (InputStream in = Fonts.class.getResourceAsStream(ORBITRON_PATH)) {
+            if (in == null) {
+                System.out.println("Fonts: Orbitron-Black.ttf not found, using Arial.");
+                return new Font("Arial", Font.BOLD, (int) size);
+            }
+            return Font.createFont(Font.TRUETYPE_FONT, in).deriveFont(size);
+        } catch (IOException | FontFormatException e) {
+            System.out.println("Fonts: error loading Orbitron-Black.ttf: " + e.getMessage());
+            return new Font("Arial", Font.BOLD, (int) size);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.tetris.view;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estatísticas de tempo de frame da renderização ativa.
+ * Guarda as últimas {@link #WINDOW} amostras do intervalo entre frames (de show() a show())
+ * e do tempo gasto desenhando cada frame. Não é thread-safe: é alimentada e lida pela
+ * thread que renderiza.
+ */
+public final class FrameStats {
+
+    public static final int WINDOW = 240;
+
+    private final long[] intervals = new long[WINDOW];
+    private final long[] renderTimes = new long[WINDOW];
+    private final long[] sorted = new long[WINDOW];
+    private int count;
+    private int index;
+    private long lastFrameNanos;
+    private long totalFrames;
+
+    /**
+     * Registra um frame apresentado.
+     * @param renderStartNanos instante em que o desenho começou
+     * @param shownNanos instante logo após o show()
+     */
+    void record(long renderStartNanos, long shownNanos) {
+        totalFrames++;
+        long interval = lastFrameNanos == 0 ? 0 : shownNanos - lastFrameNanos;
+        lastFrameNanos = shownNanos;
+        if (interval == 0) {
+            return;
+        }
+        intervals[index] = interval;
+        renderTimes[index] = shownNanos - renderStartNanos;
+        index = (index + 1) % WINDOW;
+        if (count < WINDOW) count++;
+    }
+
+    public long getTotalFrames() {
+        return totalFrames;
+    }
+
+    public double getAverageFps() {
+        long average = average(intervals);
+        return average == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / (double) average;
+    }
+
+    public long getAverageFrameNanos() {
+        return average(intervals);
+    }
+
+    public long getAverageRenderNanos() {
+        return average(renderTimes);
+    }
+
+    /**
+     * Percentil do intervalo entre frames na janela atual (ex: 0.99 = p99).
+     */
+    public long getFrameNanosPercentile(double percentile) {
+        if (count == 0) return 0;
+        System.arraycopy(intervals, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int i = (int) Math.min(count - 1, Math.max(0, Math.ceil(percentile * count) - 1));
+        return sorted[i];
+    }
+
+    public long getMaxFrameNanos() {
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, intervals[i]);
+        }
+        return max;
+    }
+
+    private long average(long[] samples) {
+        if (count == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += samples[i];
+        }
+        return sum / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f fps | frame médio %.2f ms, p99 %.2f ms, máx %.2f ms | desenho médio %.2f ms",
+                getAverageFps(),
+                getAverageFrameNanos() / 1e6,
+                getFrameNanosPercentile(0.99) / 1e6,
+                getMaxFrameNanos() / 1e6,
+                getAverageRenderNanos() / 1e6);
+    }
+}
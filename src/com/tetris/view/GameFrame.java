@@ -16,15 +16,22 @@ public class GameFrame extends JFrame {
     private com.tetris.controller.GameController controller;
 
     public GameFrame() {
-        initComponents();
+        this(Boolean.getBoolean("tetris.activeRender"));
     }
 
-    private void initComponents() {
+    /**
+     * @param activeRender usa renderização ativa (BufferStrategy) para o tabuleiro
+     */
+    public GameFrame(boolean activeRender) {
+        initComponents(activeRender);
+    }
+
+    private void initComponents(boolean activeRender) {
         // Cria o painel em camadas
         layeredPane = new JLayeredPane();
 
         // Cria os nossos painéis
-        gamePanel = new GamePanel();
+        gamePanel = new GamePanel(activeRender);
         overlayPanel = new OverlayPanel();
 
         // Define o tamanho dos painéis para que ocupem toda a janela
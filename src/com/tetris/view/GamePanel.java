@@ -6,6 +6,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.function.LongConsumer;
 
 /**
  * Painel principal que contém e organiza o tabuleiro e as informações do jogo.
@@ -13,40 +14,50 @@ import java.awt.event.ActionListener;
  */
 public class GamePanel extends JPanel {
 
+    private static final Color GOLD = new Color(212, 175, 55);
+
     private BoardPanel boardPanel;
+    private ActiveBoardCanvas activeCanvas; // só no modo de renderização ativa
     private InfoPanel infoPanel;
     private JButton historyButton;
+    private LongConsumer replayHandler; // abre o replay de uma partida do histórico, ou null
+    private JPanel bottomPanel;
+    private Theme currentTheme = Theme.AVAILABLE_THEMES[0];
 
     public GamePanel() {
-        initComponents();
+        this(false);
+    }
+
+    /**
+     * @param activeRender se verdadeiro, o tabuleiro é um {@link ActiveBoardCanvas} desenhado pelo game loop
+     */
+    public GamePanel(boolean activeRender) {
+        initComponents(activeRender);
     }
 
-    private void initComponents() {
+    private void initComponents(boolean activeRender) {
         setLayout(new BorderLayout());
 
         boardPanel = new BoardPanel();
         infoPanel = new InfoPanel();
+        if (activeRender) {
+            activeCanvas = new ActiveBoardCanvas(
+                    Integer.getInteger("tetris.buffers", ActiveBoardCanvas.DEFAULT_BUFFERS));
+        }
 
         // Painel lateral que contém informações e botões
         JPanel sidePanel = new JPanel(new BorderLayout());
         sidePanel.add(infoPanel, BorderLayout.CENTER);
 
         // Painel inferior com fundo camuflado e moldura dourada
-        JPanel bottomPanel = new JPanel() {
+        bottomPanel = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 Graphics2D g2 = (Graphics2D) g;
-                Color verde1 = new Color(60, 68, 50);
-                Color verde2 = new Color(40, 46, 35);
-                for (int i = 0; i < getWidth(); i += 40) {
-                    for (int j = 0; j < getHeight(); j += 40) {
-                        g2.setColor((i + j) % 80 == 0 ? verde1 : verde2);
-                        g2.fillRect(i, j, 40, 40);
-                    }
-                }
+                CamouflageTexture.fill(g2, currentTheme, getWidth(), getHeight());
                 // Moldura dourada em volta do painel
-                g2.setColor(new Color(212, 175, 55));
+                g2.setColor(GOLD);
                 g2.drawRect(0, 0, getWidth() - 1, getHeight() - 1);
             }
         };
@@ -70,7 +81,7 @@ public class GamePanel extends JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 JFrame top = (JFrame) SwingUtilities.getWindowAncestor(GamePanel.this);
-                HistoryDialog dlg = new HistoryDialog(top);
+                HistoryDialog dlg = new HistoryDialog(top, currentTheme, replayHandler);
                 dlg.setModal(false);
                 dlg.setVisible(true);
                 SwingUtilities.invokeLater(() -> GamePanel.this.requestFocusInWindow());
@@ -80,21 +91,42 @@ public class GamePanel extends JPanel {
         bottomPanel.add(historyButton);
         sidePanel.add(bottomPanel, BorderLayout.SOUTH);
 
-        add(boardPanel, BorderLayout.CENTER);
+        add(activeCanvas != null ? activeCanvas : boardPanel, BorderLayout.CENTER);
         add(sidePanel, BorderLayout.EAST);
 
         setBackground(new Color(50, 55, 45));
     }
 
     public void updateTheme(Theme theme) {
+        if (theme != currentTheme) {
+            currentTheme = theme;
+            bottomPanel.repaint();
+        }
         infoPanel.updateTheme(theme);
         boardPanel.updateTheme(theme);
+        if (activeCanvas != null) {
+            activeCanvas.updateTheme(theme);
+        }
     }
 
     public BoardPanel getBoardPanel() {
         return boardPanel;
     }
 
+    /**
+     * Ação do botão "Assistir replay" do histórico (recebe o id da partida).
+     */
+    public void setReplayHandler(LongConsumer replayHandler) {
+        this.replayHandler = replayHandler;
+    }
+
+    /**
+     * Tabuleiro com renderização ativa, ou null no modo Swing padrão.
+     */
+    public ActiveBoardCanvas getActiveCanvas() {
+        return activeCanvas;
+    }
+
     public InfoPanel getInfoPanel() {
         return infoPanel;
     }
@@ -1,16 +1,48 @@
 package com.tetris.view;
 
 import com.tetris.db.Database;
+import com.tetris.db.GameSession;
+import com.tetris.db.Leaderboard;
+import com.tetris.db.PlayerStats;
+import com.tetris.model.Theme;
 import javax.swing.*;
 import java.awt.*;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.function.LongConsumer;
 
 public class HistoryDialog extends JDialog {
 
-    private JTextArea textArea;
+    private static final int PAGE_SIZE = 100;
+    private static final int LEADERBOARD_SIZE = 10;
+    // Páginas buscadas por carga; cada página chega na tabela assim que é lida
+    private static final int PAGES_PER_LOAD = 3;
+    // Carrega a próxima página quando faltar menos que isso (em pixels) para o fim da rolagem
+    private static final int LOAD_AHEAD_PX = 200;
+
+    private final HistoryTableModel model = new HistoryTableModel();
+    private final LeaderboardTableModel leaderboardModel = new LeaderboardTableModel();
+    private JTable table;
+    private JLabel statusLabel;
+    private JProgressBar progressBar;
+    private JScrollBar verticalBar;
+    private boolean hasMorePages = true;
+    private HistoryLoader loader; // busca em andamento, ou null
+    private final Theme theme;
+    private final LongConsumer onWatchReplay; // null: sem botão de replay
 
     public HistoryDialog(Frame owner) {
+        this(owner, Theme.AVAILABLE_THEMES[0]);
+    }
+
+    public HistoryDialog(Frame owner, Theme theme) {
+        this(owner, theme, null);
+    }
+
+    public HistoryDialog(Frame owner, Theme theme, LongConsumer onWatchReplay) {
         super(owner, "Histórico de Missões", false); // "Missões" dá um toque temático
+        this.theme = theme;
+        this.onWatchReplay = onWatchReplay;
         initComponents();
     }
 
@@ -30,31 +62,35 @@ public class HistoryDialog extends JDialog {
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 // fundo com textura simples tipo camuflagem
-                Graphics2D g2 = (Graphics2D) g;
-                for (int i = 0; i < getWidth(); i += 40) {
-                    for (int j = 0; j < getHeight(); j += 40) {
-                        g2.setColor((i + j) % 80 == 0 ? verdeOliva : verdeEscuro);
-                        g2.fillRect(i, j, 40, 40);
-                    }
-                }
+                CamouflageTexture.fill((Graphics2D) g, theme, getWidth(), getHeight());
             }
         };
         contentPanel.setBorder(BorderFactory.createLineBorder(amareloEB, 3));
 
-        // --- Área de texto ---
-        textArea = new JTextArea();
-        textArea.setEditable(false);
-        textArea.setOpaque(false);
-        textArea.setForeground(textoVerde);
-        textArea.setFont(new Font("Consolas", Font.BOLD, 14));
-        textArea.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        atualizarTexto();
+        // --- Tabela de partidas (páginas carregadas sob demanda) ---
+        table = new JTable(model);
+        estilizarTabela(table, verdeOliva, verdeEscuro, verdeClaro, amareloEB, textoVerde);
+        table.getColumnModel().getColumn(0).setPreferredWidth(110);
+        table.getColumnModel().getColumn(4).setPreferredWidth(140);
 
-        JScrollPane scroll = new JScrollPane(textArea);
+        JScrollPane scroll = new JScrollPane(table);
         scroll.setOpaque(false);
         scroll.getViewport().setOpaque(false);
         scroll.setBorder(BorderFactory.createLineBorder(verdeClaro, 2));
-        scroll.getVerticalScrollBar().setBackground(verdeOliva);
+        verticalBar = scroll.getVerticalScrollBar();
+        verticalBar.setBackground(verdeOliva);
+        verticalBar.addAdjustmentListener(e -> carregarSePertoDoFim());
+
+        statusLabel = new JLabel("Carregando histórico...");
+        statusLabel.setForeground(textoVerde);
+        statusLabel.setFont(new Font("Consolas", Font.BOLD, 12));
+
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setPreferredSize(new Dimension(80, 12));
+        progressBar.setForeground(amareloEB);
+        progressBar.setBackground(verdeEscuro);
+        progressBar.setBorderPainted(false);
 
         // --- Botão "Apagar histórico" ---
         JButton clearButton = new JButton("Apagar histórico");
@@ -91,38 +127,238 @@ public class HistoryDialog extends JDialog {
                     JOptionPane.YES_NO_OPTION
             );
             if (confirm == JOptionPane.YES_OPTION) {
-                Database.clearHistory();
-                atualizarTexto();
-                JOptionPane.showMessageDialog(this, "Histórico apagado com sucesso!");
+                apagarHistorico(clearButton);
             }
         });
 
+        // --- Botão "Assistir replay" (partida selecionada na aba de missões) ---
+        JButton replayButton = null;
+        if (onWatchReplay != null) {
+            JButton button = new JButton("Assistir replay");
+            button.setBackground(verdeEscuro);
+            button.setForeground(amareloEB);
+            button.setFont(new Font("Consolas", Font.BOLD, 13));
+            button.setBorder(clearButton.getBorder());
+            button.setFocusPainted(false);
+            button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+            button.setEnabled(false);
+            table.getSelectionModel().addListSelectionListener(e -> button.setEnabled(table.getSelectedRow() >= 0));
+            button.addActionListener(e -> {
+                int row = table.getSelectedRow();
+                if (row >= 0) {
+                    onWatchReplay.accept(model.getSession(table.convertRowIndexToModel(row)).id());
+                }
+            });
+            replayButton = button;
+        }
+
         // --- Painel inferior de botões ---
-        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JPanel buttonPanel = new JPanel(new BorderLayout());
         buttonPanel.setOpaque(false);
-        buttonPanel.add(clearButton);
+        buttonPanel.setBorder(BorderFactory.createEmptyBorder(6, 10, 6, 6));
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 6));
+        statusPanel.setOpaque(false);
+        statusPanel.add(progressBar);
+        statusPanel.add(statusLabel);
+        buttonPanel.add(statusPanel, BorderLayout.CENTER);
+        JPanel actionsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
+        actionsPanel.setOpaque(false);
+        if (replayButton != null) {
+            actionsPanel.add(replayButton);
+        }
+        actionsPanel.add(clearButton);
+        buttonPanel.add(actionsPanel, BorderLayout.EAST);
+
+        // --- Aba de ranking (tabela agregada por jogador, top 10) ---
+        JTable leaderboardTable = new JTable(leaderboardModel);
+        estilizarTabela(leaderboardTable, verdeOliva, verdeEscuro, verdeClaro, amareloEB, textoVerde);
+        leaderboardTable.getColumnModel().getColumn(0).setPreferredWidth(30);
+        leaderboardTable.getColumnModel().getColumn(1).setPreferredWidth(120);
+        JScrollPane leaderboardScroll = new JScrollPane(leaderboardTable);
+        leaderboardScroll.setOpaque(false);
+        leaderboardScroll.getViewport().setOpaque(false);
+        leaderboardScroll.setBorder(BorderFactory.createLineBorder(verdeClaro, 2));
 
-        contentPanel.add(scroll, BorderLayout.CENTER);
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.setFont(new Font("Consolas", Font.BOLD, 13));
+        tabs.setBackground(verdeEscuro);
+        tabs.setForeground(amareloEB);
+        tabs.addTab("Missões", scroll);
+        tabs.addTab("Ranking", leaderboardScroll);
+
+        contentPanel.add(tabs, BorderLayout.CENTER);
         contentPanel.add(buttonPanel, BorderLayout.SOUTH);
         add(contentPanel, BorderLayout.CENTER);
 
         // --- Configurações do diálogo ---
         setFocusableWindowState(false);
         setAlwaysOnTop(true);
-        setSize(440, 320);
+        setSize(620, 360);
         setLocationRelativeTo(getOwner());
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        // Fechar o diálogo cancela a busca em andamento
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                cancelarCarga();
+            }
+        });
+
+        // O diálogo abre já; as linhas chegam da thread de fundo
+        carregarProximaPagina();
+        carregarRanking();
+    }
+
+    private static void estilizarTabela(JTable table, Color verdeOliva, Color verdeEscuro, Color verdeClaro,
+                                        Color amareloEB, Color textoVerde) {
+        table.setFillsViewportHeight(true);
+        table.setBackground(verdeEscuro);
+        table.setForeground(textoVerde);
+        table.setGridColor(verdeOliva);
+        table.setSelectionBackground(verdeClaro);
+        table.setSelectionForeground(Color.BLACK);
+        table.setFont(new Font("Consolas", Font.BOLD, 13));
+        table.setRowHeight(20);
+        table.getTableHeader().setBackground(verdeOliva);
+        table.getTableHeader().setForeground(amareloEB);
+        table.getTableHeader().setFont(new Font("Consolas", Font.BOLD, 13));
+        table.getTableHeader().setReorderingAllowed(false);
+    }
+
+    /**
+     * Lê o top 10 da tabela de ranking em segundo plano (consulta indexada, não depende do tamanho do histórico).
+     */
+    private void carregarRanking() {
+        new SwingWorker<List<PlayerStats>, Void>() {
+            @Override
+            protected List<PlayerStats> doInBackground() throws SQLException {
+                return Leaderboard.getTopPlayers(LEADERBOARD_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                if (!isDisplayable()) return;
+                try {
+                    leaderboardModel.setPlayers(get());
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    private void recarregar() {
+        cancelarCarga();
+        model.clear();
+        hasMorePages = true;
+        carregarProximaPagina();
+    }
+
+    private void cancelarCarga() {
+        if (loader != null) {
+            loader.cancel(true);
+            loader = null;
+            progressBar.setVisible(false);
+        }
+    }
+
+    private void carregarSePertoDoFim() {
+        if (verticalBar.getValue() + verticalBar.getVisibleAmount() >= verticalBar.getMaximum() - LOAD_AHEAD_PX) {
+            carregarProximaPagina();
+        }
+    }
+
+    /**
+     * Inicia a busca das próximas páginas numa thread de fundo (se já não houver uma em andamento).
+     */
+    private void carregarProximaPagina() {
+        if (!hasMorePages || loader != null) return;
+        loader = new HistoryLoader(model.lastId(Database.FIRST_PAGE));
+        progressBar.setVisible(true);
+        loader.execute();
     }
 
-    private void atualizarTexto() {
-        List<String> history = Database.getGameHistory();
-        if (history.isEmpty()) {
-            textArea.setText("Nenhuma missão registrada até o momento.");
+    private void apagarHistorico(JButton clearButton) {
+        cancelarCarga();
+        clearButton.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                Database.clearHistory();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                clearButton.setEnabled(true);
+                if (!isDisplayable()) return;
+                recarregar();
+                carregarRanking();
+                JOptionPane.showMessageDialog(HistoryDialog.this, "Histórico apagado com sucesso!");
+            }
+        }.execute();
+    }
+
+    private void atualizarStatus() {
+        if (model.getRowCount() == 0) {
+            statusLabel.setText(hasMorePages ? "Carregando histórico..." : "Nenhuma missão registrada até o momento.");
         } else {
-            StringBuilder sb = new StringBuilder();
-            for (String line : history) {
-                sb.append("• ").append(line).append('\n');
+            statusLabel.setText(model.getRowCount() + (hasMorePages ? "+" : "") + " missões");
+        }
+    }
+
+    /**
+     * Lê até PAGES_PER_LOAD páginas a partir de um id e publica cada página assim que ela chega;
+     * process() (na EDT) só acrescenta as linhas ao modelo. O resultado indica se ainda há mais páginas.
+     */
+    private final class HistoryLoader extends SwingWorker<Boolean, GameSession> {
+
+        private final long startId;
+
+        HistoryLoader(long startId) {
+            this.startId = startId;
+        }
+
+        @Override
+        protected Boolean doInBackground() throws SQLException {
+            long beforeId = startId;
+            for (int i = 0; i < PAGES_PER_LOAD && !isCancelled(); i++) {
+                List<GameSession> page = Database.getGameHistoryPage(beforeId, PAGE_SIZE);
+                if (!page.isEmpty()) {
+                    publish(page.toArray(new GameSession[0]));
+                    beforeId = page.get(page.size() - 1).id();
+                }
+                if (page.size() < PAGE_SIZE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        protected void process(List<GameSession> chunk) {
+            if (loader != this) return; // carga cancelada (diálogo fechado ou histórico recarregado)
+            model.append(chunk);
+            atualizarStatus();
+        }
+
+        @Override
+        protected void done() {
+            if (loader != this) return;
+            loader = null;
+            progressBar.setVisible(false);
+            try {
+                hasMorePages = get();
+            } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                hasMorePages = false;
+                statusLabel.setText("Erro ao carregar o histórico.");
+                e.printStackTrace();
+                return;
             }
-            textArea.setText(sb.toString());
+            atualizarStatus();
+            // Se as linhas carregadas ainda não enchem a tela, continua buscando
+            carregarSePertoDoFim();
         }
     }
 }
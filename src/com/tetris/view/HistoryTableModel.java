@@ -0,0 +1,79 @@
+package com.tetris.view;
+
+import com.tetris.db.GameSession;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modelo da tabela de histórico: guarda só as páginas já carregadas.
+ * A JTable desenha apenas as linhas visíveis, então o custo de exibir não depende do
+ * tamanho do histórico; novas páginas são acrescentadas conforme o usuário rola.
+ */
+final class HistoryTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMNS = {"Jogador", "Pontos", "Nível", "Linhas", "Data"};
+
+    private final List<GameSession> rows = new ArrayList<>();
+
+    void append(List<GameSession> page) {
+        if (page.isEmpty()) return;
+        int first = rows.size();
+        rows.addAll(page);
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    void clear() {
+        rows.clear();
+        fireTableDataChanged();
+    }
+
+    GameSession getSession(int row) {
+        return rows.get(row);
+    }
+
+    /**
+     * Id da última partida carregada (chave para pedir a próxima página).
+     */
+    long lastId(long ifEmpty) {
+        return rows.isEmpty() ? ifEmpty : rows.get(rows.size() - 1).id();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column >= 1 && column <= 3 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        GameSession session = rows.get(row);
+        switch (column) {
+            case 0:
+                return session.playerName();
+            case 1:
+                return session.score();
+            case 2:
+                return session.level();
+            case 3:
+                return session.linesCleared();
+            default:
+                return session.dateTime();
+        }
+    }
+}
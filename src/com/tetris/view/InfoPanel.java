@@ -1,13 +1,13 @@
 package com.tetris.view;
 
 import com.tetris.controller.GameController;
-import com.tetris.model.Board;
-import com.tetris.model.Piece;
+import com.tetris.model.GameSnapshot;
 import com.tetris.model.Shape;
 import com.tetris.model.Theme;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 
 /**
  * Painel lateral militar estilizado – exibe informações de pontuação, nível,
@@ -18,12 +18,32 @@ public class InfoPanel extends JPanel {
     private static final int PANEL_WIDTH = 250;
     private static final int SQUARE_PREVIEW_SIZE = 20;
 
-    private Board board;
+    // --- Layout das caixas (usado para desenhar e para redesenhar só a caixa que mudou) ---
+    private static final int PADDING = 20;
+    private static final int BLOCK_WIDTH = PANEL_WIDTH - (2 * PADDING);
+    private static final int BLOCK_HEIGHT = 55;
+    private static final int SPACING = 12;
+    private static final int HALF_WIDTH = (BLOCK_WIDTH - SPACING) / 2;
+    private static final int HIGH_SCORE_Y = 35;
+    private static final int SCORE_Y = HIGH_SCORE_Y + BLOCK_HEIGHT + SPACING;
+    private static final int COUNTERS_Y = SCORE_Y + BLOCK_HEIGHT + SPACING;
+    private static final int NEXT_PIECE_Y = COUNTERS_Y + BLOCK_HEIGHT + SPACING;
+    private static final int NEXT_PIECE_HEIGHT = 110;
+
+    // --- Cores fixas do painel ---
+    private static final Color GOLD = new Color(212, 175, 55);
+    private static final Color BOX_BACKGROUND = new Color(45, 52, 40);
+    private static final Color LABEL_COLOR = new Color(180, 255, 180);
+
+    private GameSnapshot state;
     private Theme currentTheme;
     private GameController controller;
 
     private RoundedButton resetButton;
 
+    // Caixas e títulos já desenhados (só mudam se o painel mudar de tamanho)
+    private BufferedImage chromeLayer;
+
     public InfoPanel() {
         this.currentTheme = Theme.AVAILABLE_THEMES[0];
         setPreferredSize(new Dimension(PANEL_WIDTH, 1));
@@ -51,144 +71,150 @@ public class InfoPanel extends JPanel {
         this.controller = controller;
     }
 
-    public void updateInfo(Board board) {
-        this.board = board;
+    public void updateInfo(GameSnapshot state) {
+        this.state = state;
     }
 
     public void updateTheme(Theme theme) {
+        if (theme == currentTheme) return;
         this.currentTheme = theme;
         repaint();
     }
 
+    /**
+     * Redesenha apenas as caixas cujos valores mudaram.
+     * @param changed combinação das constantes GameSnapshot.CHANGED_*
+     */
+    public void repaintChanges(int changed) {
+        if ((changed & GameSnapshot.CHANGED_STATUS) != 0) {
+            repaint();
+            return;
+        }
+        if ((changed & GameSnapshot.CHANGED_HIGH_SCORE) != 0) {
+            repaintBlock(PADDING, HIGH_SCORE_Y, BLOCK_WIDTH, BLOCK_HEIGHT);
+        }
+        if ((changed & GameSnapshot.CHANGED_SCORE) != 0) {
+            repaintBlock(PADDING, SCORE_Y, BLOCK_WIDTH, BLOCK_HEIGHT);
+        }
+        if ((changed & GameSnapshot.CHANGED_LINES) != 0) {
+            repaintBlock(PADDING, COUNTERS_Y, HALF_WIDTH, BLOCK_HEIGHT);
+        }
+        if ((changed & GameSnapshot.CHANGED_LEVEL) != 0) {
+            repaintBlock(PADDING + HALF_WIDTH + SPACING, COUNTERS_Y, HALF_WIDTH, BLOCK_HEIGHT);
+        }
+        if ((changed & GameSnapshot.CHANGED_PREVIEW) != 0) {
+            repaintBlock(PADDING, NEXT_PIECE_Y, BLOCK_WIDTH, NEXT_PIECE_HEIGHT);
+        }
+    }
+
+    // Margem de 1px para a borda arredondada com antialiasing
+    private void repaintBlock(int x, int y, int width, int height) {
+        repaint(x - 1, y - 1, width + 3, height + 3);
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         drawBackground((Graphics2D) g);
-        if (board != null && board.isStarted()) {
+        if (state != null && state.isStarted()) {
             drawGameInfo((Graphics2D) g);
         }
     }
 
     private void drawBackground(Graphics2D g2d) {
-        Color verdeOliva = new Color(60, 68, 50);
-        Color verdeEscuro = new Color(40, 46, 35);
-        for (int i = 0; i < getWidth(); i += 40) {
-            for (int j = 0; j < getHeight(); j += 40) {
-                g2d.setColor((i + j) % 80 == 0 ? verdeOliva : verdeEscuro);
-                g2d.fillRect(i, j, 40, 40);
-            }
-        }
-        g2d.setColor(new Color(212, 175, 55));
+        CamouflageTexture.fill(g2d, currentTheme, getWidth(), getHeight());
+        g2d.setColor(GOLD);
         g2d.drawRect(0, 0, getWidth() - 1, getHeight() - 1);
     }
 
     private void drawGameInfo(Graphics2D g2d) {
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        if (chromeLayer == null || chromeLayer.getWidth() != getWidth() || chromeLayer.getHeight() != getHeight()) {
+            rebuildChromeLayer();
+        }
+        g2d.drawImage(chromeLayer, 0, 0, null);
+
+        // Só os valores são desenhados a cada frame
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(Fonts.INFO_VALUE);
+        NumberText.draw(g2d, state.getHighScore(), 6, PADDING + 10, HIGH_SCORE_Y + 45);
+        NumberText.draw(g2d, state.getScore(), 6, PADDING + 10, SCORE_Y + 45);
+
+        g2d.setFont(Fonts.INFO_VALUE_SMALL);
+        FontMetrics metrics = Fonts.metrics(Fonts.INFO_VALUE_SMALL);
+        NumberText.drawCentered(g2d, metrics, state.getLinesCleared(), 3,
+                PADDING + HALF_WIDTH / 2, COUNTERS_Y + 52);
+        NumberText.drawCentered(g2d, metrics, state.getLevel(), 2,
+                PADDING + HALF_WIDTH + SPACING + HALF_WIDTH / 2, COUNTERS_Y + 52);
+
+        drawNextPiece(g2d, PADDING, NEXT_PIECE_Y, BLOCK_WIDTH);
+    }
 
-        int padding = 20;
-        int blockWidth = PANEL_WIDTH - (2 * padding);
-        int blockHeight = 55;
-        int spacing = 12;
-        int y = 35;
+    /**
+     * Desenha uma única vez as caixas, os títulos e o texto da pausa (tudo que não muda
+     * durante a partida) numa camada transparente do tamanho do painel.
+     */
+    private void rebuildChromeLayer() {
+        chromeLayer = TileSprites.createLayer(this, Math.max(1, getWidth()), Math.max(1, getHeight()), true);
+        Graphics2D g = (Graphics2D) chromeLayer.getGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         // Recorde e Pontuação
-        y = drawInfoBlock(g2d, "RECORD DE OPERAÇÃO", String.format("%06d", board.getHighScore()),
-                padding, y, blockWidth, blockHeight);
-        y += spacing;
-        y = drawInfoBlock(g2d, "MISSÃO ATUAL", String.format("%06d", board.getScore()),
-                padding, y, blockWidth, blockHeight);
-        y += spacing;
+        drawInfoBlock(g, "RECORD DE OPERAÇÃO", PADDING, HIGH_SCORE_Y, BLOCK_WIDTH, BLOCK_HEIGHT);
+        drawInfoBlock(g, "MISSÃO ATUAL", PADDING, SCORE_Y, BLOCK_WIDTH, BLOCK_HEIGHT);
 
         // Nível e Inimigos Neutralizados (em duas linhas)
-        int halfWidth = (blockWidth - spacing) / 2;
-
-        // Esquerda — Inimigos Neutralizados (corrigido para getLinesCleared)
-        drawInfoBlockMultiLine(g2d, "INIMIGOS", "NEUTRALIZADOS",
-                String.format("%03d", board.getLinesCleared()),
-                padding, y, halfWidth, blockHeight);
-
-        // Direita — Nível de Alerta (usa o level)
-        drawInfoBlockMultiLine(g2d, "NÍVEL", "DE ALERTA",
-                String.format("%02d", board.getLevel()),
-                padding + halfWidth + spacing, y, halfWidth, blockHeight);
-        y += blockHeight + spacing;
+        drawInfoBlockMultiLine(g, "INIMIGOS", "NEUTRALIZADOS", PADDING, COUNTERS_Y, HALF_WIDTH, BLOCK_HEIGHT);
+        drawInfoBlockMultiLine(g, "NÍVEL", "DE ALERTA",
+                PADDING + HALF_WIDTH + SPACING, COUNTERS_Y, HALF_WIDTH, BLOCK_HEIGHT);
 
         // Próxima peça
-        y = drawNextPiecePanel(g2d, "PRÓXIMO REFORÇO", padding, y, blockWidth, 110);
+        drawInfoBlock(g, "PRÓXIMO REFORÇO", PADDING, NEXT_PIECE_Y, BLOCK_WIDTH, NEXT_PIECE_HEIGHT);
 
         // Texto da pausa (sem box)
-        g2d.setFont(new Font("Consolas", Font.BOLD, 14));
-        g2d.setColor(new Color(212, 175, 55));
-        g2d.drawString("PAUSAR MISSÃO: [P]", padding + 30, getHeight() - 25);
+        g.setFont(Fonts.INFO_HINT);
+        g.setColor(GOLD);
+        g.drawString("PAUSAR MISSÃO: [P]", PADDING + 30, getHeight() - 25);
+        g.dispose();
     }
 
-    // 🔹 Caixa normal
-    private int drawInfoBlock(Graphics2D g, String title, String value, int x, int y, int width, int height) {
-        Color bg = new Color(45, 52, 40);
-        Color border = new Color(212, 175, 55);
-        g.setColor(bg);
+    private void drawBox(Graphics2D g, int x, int y, int width, int height) {
+        g.setColor(BOX_BACKGROUND);
         g.fillRoundRect(x, y, width, height, 10, 10);
-        g.setColor(border);
+        g.setColor(GOLD);
         g.drawRoundRect(x, y, width, height, 10, 10);
+    }
 
-        g.setFont(new Font("Consolas", Font.PLAIN, 13));
-        g.setColor(new Color(180, 255, 180));
+    // 🔹 Caixa normal
+    private void drawInfoBlock(Graphics2D g, String title, int x, int y, int width, int height) {
+        drawBox(g, x, y, width, height);
+        g.setFont(Fonts.INFO_TITLE);
+        g.setColor(LABEL_COLOR);
         g.drawString(title, x + 10, y + 20);
-
-        g.setFont(new Font("Consolas", Font.BOLD, 22));
-        g.setColor(Color.WHITE);
-        g.drawString(value, x + 10, y + 45);
-
-        return y + height;
     }
 
     // 🔹 Caixa com título em duas linhas (para “Inimigos Neutralizados” e “Nível de Alerta”)
-    private void drawInfoBlockMultiLine(Graphics2D g, String line1, String line2, String value,
+    private void drawInfoBlockMultiLine(Graphics2D g, String line1, String line2,
                                         int x, int y, int width, int height) {
-        Color bg = new Color(45, 52, 40);
-        Color border = new Color(212, 175, 55);
-        g.setColor(bg);
-        g.fillRoundRect(x, y, width, height, 10, 10);
-        g.setColor(border);
-        g.drawRoundRect(x, y, width, height, 10, 10);
-
-        g.setFont(new Font("Consolas", Font.PLAIN, 11));
-        g.setColor(new Color(180, 255, 180));
-        int line1Width = g.getFontMetrics().stringWidth(line1);
-        int line2Width = g.getFontMetrics().stringWidth(line2);
-        g.drawString(line1, x + (width - line1Width) / 2, y + 16);
-        g.drawString(line2, x + (width - line2Width) / 2, y + 30);
-
-        g.setFont(new Font("Consolas", Font.BOLD, 20));
-        g.setColor(Color.WHITE);
-        int valueWidth = g.getFontMetrics().stringWidth(value);
-        g.drawString(value, x + (width - valueWidth) / 2, y + 52);
+        drawBox(g, x, y, width, height);
+        g.setFont(Fonts.INFO_TITLE_SMALL);
+        g.setColor(LABEL_COLOR);
+        FontMetrics metrics = Fonts.metrics(Fonts.INFO_TITLE_SMALL);
+        g.drawString(line1, x + (width - metrics.stringWidth(line1)) / 2, y + 16);
+        g.drawString(line2, x + (width - metrics.stringWidth(line2)) / 2, y + 30);
     }
 
-    // 🔹 Caixa da próxima peça
-    private int drawNextPiecePanel(Graphics2D g, String title, int x, int y, int width, int height) {
-        Color bg = new Color(45, 52, 40);
-        Color border = new Color(212, 175, 55);
-        g.setColor(bg);
-        g.fillRoundRect(x, y, width, height, 10, 10);
-        g.setColor(border);
-        g.drawRoundRect(x, y, width, height, 10, 10);
-
-        g.setFont(new Font("Consolas", Font.PLAIN, 13));
-        g.setColor(new Color(180, 255, 180));
-        g.drawString(title, x + 10, y + 20);
-
-        if (board != null && board.getNextPiece() != null) {
-            Piece nextPiece = board.getNextPiece();
+    // 🔹 Peça dentro da caixa "Próximo Reforço"
+    private void drawNextPiece(Graphics2D g, int x, int y, int width) {
+        if (state.getNextShape() != null) {
+            Shape.Tetrominoe nextShape = state.getNextShape();
             int previewX = x + (width / 2) - (2 * SQUARE_PREVIEW_SIZE);
             int previewY = y + 45;
             for (int i = 0; i < 4; i++) {
-                int px = previewX + (nextPiece.x(i) + 1) * SQUARE_PREVIEW_SIZE;
-                int py = previewY + (1 - nextPiece.y(i)) * SQUARE_PREVIEW_SIZE;
-                drawSquare(g, px, py, nextPiece.getShape(), SQUARE_PREVIEW_SIZE);
+                int px = previewX + (Shape.cellX(nextShape, 0, i) + 1) * SQUARE_PREVIEW_SIZE;
+                int py = previewY + (1 - Shape.cellY(nextShape, 0, i)) * SQUARE_PREVIEW_SIZE;
+                drawSquare(g, px, py, nextShape, SQUARE_PREVIEW_SIZE);
             }
         }
-        return y + height;
     }
 
     private void drawSquare(Graphics g, int x, int y, Shape.Tetrominoe shape, int size) {
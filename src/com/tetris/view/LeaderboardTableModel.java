@@ -0,0 +1,71 @@
+package com.tetris.view;
+
+import com.tetris.db.PlayerStats;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modelo da aba "Ranking": os melhores jogadores pelo recorde.
+ */
+final class LeaderboardTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMNS = {"#", "Jogador", "Recorde", "Partidas", "Linhas", "Nível médio"};
+
+    private final List<PlayerStats> rows = new ArrayList<>();
+
+    void setPlayers(List<PlayerStats> players) {
+        rows.clear();
+        rows.addAll(players);
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case 1:
+                return String.class;
+            case 4:
+                return Long.class;
+            case 5:
+                return String.class;
+            default:
+                return Integer.class;
+        }
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        PlayerStats stats = rows.get(row);
+        switch (column) {
+            case 0:
+                return row + 1;
+            case 1:
+                return stats.playerName();
+            case 2:
+                return stats.bestScore();
+            case 3:
+                return stats.gamesPlayed();
+            case 4:
+                return stats.totalLines();
+            default:
+                return String.format("%.1f", stats.averageLevel());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tetris.view;
+
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+
+/**
+ * Contadores numéricos com zeros à esquerda (como String.format("%06d")) sem criar Strings:
+ * os dígitos são escritos num char[] reaproveitado e desenhados com drawChars.
+ * Usado apenas na EDT.
+ */
+final class NumberText {
+
+    private static final int MAX_DIGITS = 11;
+    private static final char[] BUFFER = new char[MAX_DIGITS];
+
+    private NumberText() {}
+
+    /**
+     * Escreve o valor no fim do buffer, com pelo menos minDigits dígitos.
+     * @return posição do primeiro caractere no buffer
+     */
+    private static int format(int value, int minDigits) {
+        long v = Math.abs((long) value);
+        int pos = MAX_DIGITS;
+        do {
+            BUFFER[--pos] = (char) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        int start = Math.max(0, MAX_DIGITS - minDigits);
+        while (pos > start) {
+            BUFFER[--pos] = '0';
+        }
+        if (value < 0 && pos > 0) {
+            BUFFER[--pos] = '-';
+        }
+        return pos;
+    }
+
+    static void draw(Graphics g, int value, int minDigits, int x, int y) {
+        int start = format(value, minDigits);
+        g.drawChars(BUFFER, start, MAX_DIGITS - start, x, y);
+    }
+
+    static void drawCentered(Graphics g, FontMetrics metrics, int value, int minDigits, int centerX, int y) {
+        int start = format(value, minDigits);
+        int width = metrics.charsWidth(BUFFER, start, MAX_DIGITS - start);
+        g.drawChars(BUFFER, start, MAX_DIGITS - start, centerX - width / 2, y);
+    }
+}
@@ -1,11 +1,12 @@
 package com.tetris.view;
 
 import com.tetris.controller.GameController;
-import com.tetris.model.Board;
+import com.tetris.model.GameSnapshot;
 import com.tetris.model.Theme;
 import javax.swing.JButton;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
+import javax.swing.SwingWorker;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics;
@@ -13,24 +14,29 @@ import java.awt.Image;
 import java.awt.image.BufferedImage;
 import javax.imageio.ImageIO;
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 
 /**
- * Painel de overlay do jogo (menu, pausa, game over) — versão com fontes Arial.
+ * Painel de overlay do jogo (menu, pausa, game over).
+ * Os títulos usam a fonte Orbitron embutida e todos os textos são pré-renderizados por tema.
  */
 public class OverlayPanel extends JPanel {
 
-    private Board board;
+    private GameSnapshot state;
     private GameController controller;
     private JButton startButton;
     private BufferedImage backgroundImage;
+    private BufferedImage scaledBackground; // imagem já escalada e escurecida para o tamanho atual do painel
     private javax.swing.JTextField nameField;
     private javax.swing.JLabel nameLabel;
-    private java.awt.Color menuTitleColor = java.awt.Color.WHITE;
-    private java.awt.Color menuTextColor = java.awt.Color.WHITE;
+    private Theme currentTheme;
+
+    // Textos pré-renderizados nas cores do tema atual
+    private OverlayTexts texts = OverlayTexts.forTheme(null);
 
     private enum MenuState { ENTER_NAME, SHOW_INFO }
     private MenuState menuState = MenuState.ENTER_NAME;
@@ -45,26 +51,66 @@ public class OverlayPanel extends JPanel {
             @Override
             public void componentResized(ComponentEvent e) {
                 layoutStartButton();
+                rebuildScaledBackground();
             }
         });
     }
 
+    /**
+     * Decodifica o menu.jpeg numa thread de fundo; a EDT só recebe a imagem pronta.
+     * Até lá a tela inicial usa o fundo escuro sem imagem.
+     */
     private void loadBackgroundImage() {
-        try {
-            java.net.URL url = getClass().getResource("/com/tetris/view/resources/menu.jpeg");
-            if (url == null) url = getClass().getResource("/resources/menu.jpeg");
+        new SwingWorker<BufferedImage, Void>() {
+            @Override
+            protected BufferedImage doInBackground() throws IOException {
+                java.net.URL url = getClass().getResource("/com/tetris/view/resources/menu.jpeg");
+                if (url == null) url = getClass().getResource("/resources/menu.jpeg");
 
-            if (url != null) {
-                backgroundImage = ImageIO.read(url);
+                if (url == null) {
+                    System.out.println("OverlayPanel: no background image found.");
+                    return null;
+                }
+                BufferedImage image = ImageIO.read(url);
                 System.out.println("OverlayPanel: loaded background image from: " + url);
-            } else {
-                backgroundImage = null;
-                System.out.println("OverlayPanel: no background image found.");
+                return image;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    backgroundImage = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    backgroundImage = null;
+                    System.out.println("OverlayPanel: error loading background image: " + e.getMessage());
+                }
+                rebuildScaledBackground();
+                repaint();
             }
-        } catch (IOException e) {
-            backgroundImage = null;
-            System.out.println("OverlayPanel: error loading background image: " + e.getMessage());
+        }.execute();
+    }
+
+    /**
+     * Escala a imagem de fundo uma única vez para o tamanho atual (chamado ao redimensionar
+     * ou quando a imagem termina de carregar), já com a camada escura por cima.
+     */
+    private void rebuildScaledBackground() {
+        int width = getWidth();
+        int height = getHeight();
+        if (backgroundImage == null || width <= 0 || height <= 0) {
+            scaledBackground = null;
+            return;
         }
+        if (scaledBackground != null && scaledBackground.getWidth() == width && scaledBackground.getHeight() == height) {
+            return;
+        }
+
+        scaledBackground = TileSprites.createLayer(this, width, height, false);
+        Graphics g = scaledBackground.getGraphics();
+        g.drawImage(backgroundImage.getScaledInstance(width, height, Image.SCALE_SMOOTH), 0, 0, null);
+        g.setColor(new Color(0, 0, 0, 120));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
     }
 
     private void initStartButton() {
@@ -128,26 +174,14 @@ public class OverlayPanel extends JPanel {
     }
 
     public void updateTheme(Theme theme) {
-        if (theme == null) return;
+        if (theme == null || theme == currentTheme) return;
+        currentTheme = theme;
         Color bg = theme.uiBackground().darker();
         Color fg = (bg.getRed() < 128) ? Color.WHITE : Color.BLACK;
         startButton.setBackground(bg);
         startButton.setForeground(fg);
 
-        String tname = theme.name() == null ? "" : theme.name().toLowerCase();
-        if (tname.contains("oficiais") || tname.contains("r2")) {
-            menuTitleColor = new Color(255, 215, 0);
-        } else if (tname.contains("exército") || tname.contains("exercito")) {
-            menuTitleColor = new Color(255, 204, 51);
-        } else {
-            menuTitleColor = fg;
-        }
-
-        double lum = (0.299 * theme.uiBackground().getRed())
-                + (0.587 * theme.uiBackground().getGreen())
-                + (0.114 * theme.uiBackground().getBlue());
-        menuTextColor = (lum < 128) ? Color.WHITE : Color.BLACK;
-
+        texts = OverlayTexts.forTheme(theme);
         startButton.repaint();
         repaint();
     }
@@ -170,10 +204,10 @@ public class OverlayPanel extends JPanel {
         startButton.setEnabled(s != null && !s.trim().isEmpty());
     }
 
-    public void updateBoard(Board board) {
-        this.board = board;
+    public void updateBoard(GameSnapshot state) {
+        this.state = state;
         if (startButton != null) {
-            boolean showMenu = (board != null && !board.isStarted());
+            boolean showMenu = (state != null && !state.isStarted());
             startButton.setVisible(showMenu);
             if (showMenu && !menuPreviouslyVisible) {
                 menuState = MenuState.ENTER_NAME;
@@ -191,103 +225,35 @@ public class OverlayPanel extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (board == null) return;
+        if (state == null) return;
 
-        if (!board.isStarted()) {
+        if (!state.isStarted()) {
             drawStartScreen(g);
-        } else if (board.isGameOver()) {
-            drawGameOver(g);
-        } else if (board.isPaused()) {
-            drawPaused(g);
+        } else if (state.isGameOver()) {
+            texts.drawGameOver(g, getWidth(), getHeight());
+        } else if (state.isPaused()) {
+            texts.drawPaused(g, getWidth(), getHeight());
         }
     }
 
     private void drawStartScreen(Graphics g) {
-        if (backgroundImage != null) {
-            g.drawImage(backgroundImage.getScaledInstance(getWidth(), getHeight(), Image.SCALE_SMOOTH), 0, 0, null);
-            g.setColor(new Color(0, 0, 0, 120));
-            g.fillRect(0, 0, getWidth(), getHeight());
+        if (scaledBackground == null) {
+            rebuildScaledBackground();
+        }
+        if (scaledBackground != null) {
+            g.drawImage(scaledBackground, 0, 0, null);
         } else {
-            g.setColor(new Color(0, 0, 0, 180));
+            g.setColor(OverlayTexts.DIM);
             g.fillRect(0, 0, getWidth(), getHeight());
         }
 
-        g.setColor(menuTitleColor);
-        g.setFont(new Font("Arial", Font.BOLD, 36));
-        g.drawString("TETRIS", getWidth() / 2 - 60, getHeight() / 2 - 150);
-
-        g.setColor(menuTextColor);
-        g.setFont(new Font("Arial", Font.PLAIN, 14));
-        int y = getHeight() / 2 - 80;
-        int x = getWidth() / 2 - 110;
+        texts.tetrisTitle.drawCentered(g, getWidth() / 2, getHeight() / 2 - 150);
 
         if (menuState == MenuState.ENTER_NAME) {
-            g.setFont(new Font("Arial", Font.BOLD, 18));
-            y = getHeight() - 150;
-            String text = "Digite seu nome e pressione Próximo";
-            int stringWidth = g.getFontMetrics().stringWidth(text);
-            g.drawString(text, (getWidth() - stringWidth) / 2, y);
+            texts.enterNamePrompt.drawCentered(g, getWidth() / 2, getHeight() - 150);
         } else if (menuState == MenuState.SHOW_INFO) {
-            drawControls(g, x, y);
-            g.setFont(new Font("Arial", Font.BOLD, 18));
-            y = getHeight() - 150;
-            String text = "Revise as informações e pressione Iniciar";
-            int stringWidth = g.getFontMetrics().stringWidth(text);
-            g.drawString(text, (getWidth() - stringWidth) / 2, y);
+            texts.controlsManual.draw(g, getWidth() / 2 - 110, getHeight() / 2 - 80);
+            texts.reviewPrompt.drawCentered(g, getWidth() / 2, getHeight() - 150);
         }
     }
-
-    private void drawGameOver(Graphics g) {
-        g.setColor(new Color(0, 0, 0, 180));
-        g.fillRect(0, 0, getWidth(), getHeight());
-        g.setColor(menuTitleColor);
-        g.setFont(new Font("Arial", Font.BOLD, 36));
-        g.drawString("GAME OVER", getWidth() / 2 - 80, getHeight() / 2);
-        g.setColor(menuTextColor);
-        g.setFont(new Font("Arial", Font.PLAIN, 18));
-        g.drawString("ENTER para reiniciar", getWidth() / 2 - 110, getHeight() / 2 + 40);
-    }
-
-    private void drawPaused(Graphics g) {
-        g.setColor(new Color(0, 0, 0, 180));
-        g.fillRect(0, 0, getWidth(), getHeight());
-
-        g.setColor(menuTitleColor);
-        g.setFont(new Font("Arial", Font.BOLD, 36));
-        g.drawString("PAUSADO", getWidth() / 2 - 70, getHeight() / 2 - 150);
-
-        g.setColor(menuTextColor);
-        g.setFont(new Font("Arial", Font.PLAIN, 14));
-        int y = getHeight() / 2 - 80;
-        int x = getWidth() / 2 - 110;
-        drawControls(g, x, y);
-
-        g.setFont(new Font("Arial", Font.BOLD, 18));
-        y = getHeight() - 150;
-        g.drawString("Pressione P para continuar", getWidth() / 2 - 125, y);
-    }
-
-    private void drawControls(Graphics g, int x, int y) {
-        g.setFont(new Font("Arial", Font.BOLD, 14));
-        g.drawString("MANUAL DE CONTROLES", x, y);
-        y += 30;
-        g.setFont(new Font("Arial", Font.PLAIN, 13));
-        g.drawString("←   Mover Esquerda", x, y);
-        y += 20;
-        g.drawString("→   Mover Direita", x, y);
-        y += 20;
-        g.drawString("↑   Girar (Horário)", x, y);
-        y += 20;
-        g.drawString("Z   Girar (Anti-horário)", x, y);
-        y += 20;
-        g.drawString("↓   Acelerar Queda", x, y);
-        y += 20;
-        g.drawString("Espaço   Cair Imediatamente", x, y);
-        y += 20;
-        g.drawString("P   Pausar Jogo", x, y);
-        y += 20;
-        g.drawString("T   Mudar Tema Visual", x, y);
-        y += 20;
-        g.drawString("G   Ativar/Desativar Prévia", x, y);
-    }
 }
@@ -0,0 +1,105 @@
+package com.tetris.view;
+
+import com.tetris.model.Theme;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Textos das telas de menu, pausa e game over, pré-renderizados nas cores de um tema.
+ * Compartilhado pelo {@link OverlayPanel} (Swing) e pelo {@link ActiveBoardCanvas} (renderização ativa,
+ * na thread do game loop); as imagens são imutáveis depois de criadas.
+ */
+final class OverlayTexts {
+
+    static final Color DIM = new Color(0, 0, 0, 180);
+
+    private static final String[] CONTROL_LINES = {
+            "←   Mover Esquerda",
+            "→   Mover Direita",
+            "↑   Girar (Horário)",
+            "Z   Girar (Anti-horário)",
+            "↓   Acelerar Queda",
+            "Espaço   Cair Imediatamente",
+            "P   Pausar Jogo",
+            "Backspace   Voltar no Tempo",
+            "T   Mudar Tema Visual",
+            "G   Ativar/Desativar Prévia"
+    };
+
+    private static final Map<String, OverlayTexts> CACHE = new HashMap<>();
+
+    final TextSprite tetrisTitle;
+    final TextSprite gameOverTitle;
+    final TextSprite pausedTitle;
+    final TextSprite enterNamePrompt;
+    final TextSprite reviewPrompt;
+    final TextSprite continuePrompt;
+    final TextSprite restartText;
+    final TextSprite controlsManual;
+
+    private OverlayTexts(Color titleColor, Color textColor) {
+        Font title = Fonts.title();
+        tetrisTitle = TextSprite.of("TETRIS", title, titleColor);
+        gameOverTitle = TextSprite.of("GAME OVER", title, titleColor);
+        pausedTitle = TextSprite.of("PAUSADO", title, titleColor);
+        enterNamePrompt = TextSprite.of("Digite seu nome e pressione Próximo", Fonts.MENU_PROMPT, textColor);
+        reviewPrompt = TextSprite.of("Revise as informações e pressione Iniciar", Fonts.MENU_PROMPT, textColor);
+        continuePrompt = TextSprite.of("Pressione P para continuar", Fonts.MENU_PROMPT, textColor);
+        restartText = TextSprite.of("ENTER para reiniciar", Fonts.MENU_TEXT, textColor);
+        controlsManual = TextSprite.block("MANUAL DE CONTROLES", Fonts.CONTROLS_HEADER,
+                CONTROL_LINES, Fonts.CONTROLS_TEXT, 30, 20, textColor);
+    }
+
+    /**
+     * Textos nas cores do tema (null = branco, antes do primeiro tema ser aplicado).
+     * Pode ser chamado de qualquer thread.
+     */
+    static synchronized OverlayTexts forTheme(Theme theme) {
+        String key = theme == null ? "" : theme.name();
+        OverlayTexts texts = CACHE.get(key);
+        if (texts == null) {
+            texts = theme == null
+                    ? new OverlayTexts(Color.WHITE, Color.WHITE)
+                    : new OverlayTexts(titleColor(theme), textColor(theme));
+            CACHE.put(key, texts);
+        }
+        return texts;
+    }
+
+    static Color titleColor(Theme theme) {
+        String tname = theme.name() == null ? "" : theme.name().toLowerCase();
+        if (tname.contains("oficiais") || tname.contains("r2")) {
+            return new Color(255, 215, 0);
+        } else if (tname.contains("exército") || tname.contains("exercito")) {
+            return new Color(255, 204, 51);
+        }
+        Color bg = theme.uiBackground().darker();
+        return (bg.getRed() < 128) ? Color.WHITE : Color.BLACK;
+    }
+
+    static Color textColor(Theme theme) {
+        double lum = (0.299 * theme.uiBackground().getRed())
+                + (0.587 * theme.uiBackground().getGreen())
+                + (0.114 * theme.uiBackground().getBlue());
+        return (lum < 128) ? Color.WHITE : Color.BLACK;
+    }
+
+    void drawGameOver(Graphics g, int width, int height) {
+        g.setColor(DIM);
+        g.fillRect(0, 0, width, height);
+        gameOverTitle.drawCentered(g, width / 2, height / 2);
+        restartText.drawCentered(g, width / 2, height / 2 + 40);
+    }
+
+    void drawPaused(Graphics g, int width, int height) {
+        g.setColor(DIM);
+        g.fillRect(0, 0, width, height);
+        pausedTitle.drawCentered(g, width / 2, height / 2 - 150);
+        controlsManual.draw(g, width / 2 - 110, height / 2 - 80);
+        continuePrompt.drawCentered(g, width / 2, height - 150);
+    }
+}
@@ -0,0 +1,95 @@
+package com.tetris.view;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Texto estático pré-renderizado numa imagem transparente.
+ * Os rótulos e o manual de controles não mudam entre frames, então são desenhados
+ * uma vez (por tema/cor) e depois apenas copiados com drawImage.
+ */
+final class TextSprite {
+
+    private final BufferedImage image;
+    private final int ascent;
+
+    private TextSprite(BufferedImage image, int ascent) {
+        this.image = image;
+        this.ascent = ascent;
+    }
+
+    /**
+     * Uma linha de texto numa fonte e cor.
+     */
+    static TextSprite of(String text, Font font, Color color) {
+        FontMetrics metrics = Fonts.metrics(font);
+        int width = Math.max(1, metrics.stringWidth(text));
+        int height = Math.max(1, metrics.getAscent() + metrics.getDescent());
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = createGraphics(image);
+        g.setFont(font);
+        g.setColor(color);
+        g.drawString(text, 0, metrics.getAscent());
+        g.dispose();
+        return new TextSprite(image, metrics.getAscent());
+    }
+
+    /**
+     * Bloco com um cabeçalho e várias linhas (ex.: manual de controles).
+     * @param headerGap distância entre a linha de base do cabeçalho e a da primeira linha
+     * @param lineGap distância entre as linhas de base das demais linhas
+     */
+    static TextSprite block(String header, Font headerFont, String[] lines, Font lineFont,
+                            int headerGap, int lineGap, Color color) {
+        FontMetrics headerMetrics = Fonts.metrics(headerFont);
+        FontMetrics lineMetrics = Fonts.metrics(lineFont);
+        int ascent = headerMetrics.getAscent();
+        int width = headerMetrics.stringWidth(header);
+        for (String line : lines) {
+            width = Math.max(width, lineMetrics.stringWidth(line));
+        }
+        int lastBaseline = ascent + headerGap + (lines.length - 1) * lineGap;
+        int height = lastBaseline + lineMetrics.getDescent();
+
+        BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = createGraphics(image);
+        g.setColor(color);
+        g.setFont(headerFont);
+        g.drawString(header, 0, ascent);
+        g.setFont(lineFont);
+        int y = ascent + headerGap;
+        for (String line : lines) {
+            g.drawString(line, 0, y);
+            y += lineGap;
+        }
+        g.dispose();
+        return new TextSprite(image, ascent);
+    }
+
+    private static Graphics2D createGraphics(BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
+        return g;
+    }
+
+    int getWidth() {
+        return image.getWidth();
+    }
+
+    /**
+     * Desenha com a linha de base do (primeiro) texto em y, como drawString.
+     */
+    void draw(Graphics g, int x, int baseline) {
+        g.drawImage(image, x, baseline - ascent, null);
+    }
+
+    void drawCentered(Graphics g, int centerX, int baseline) {
+        g.drawImage(image, centerX - image.getWidth() / 2, baseline - ascent, null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.tetris.view;
+
+import com.tetris.model.Shape;
+import com.tetris.model.Theme;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Blocos pré-renderizados de cada forma (normal e fantasma) para um tema e um tamanho.
+ * Os sprites são criados uma única vez por tema; desenhar uma célula passa a ser um único drawImage,
+ * sem criar objetos Color (brighter/darker) a cada frame.
+ */
+final class TileSprites {
+
+    private static final Map<String, TileSprites> CACHE = new HashMap<>();
+
+    private final BufferedImage[] tiles;
+    private final BufferedImage[] ghostTiles;
+
+    private TileSprites(Theme theme, int size) {
+        Color[] colors = theme.pieceColors();
+        tiles = new BufferedImage[colors.length];
+        ghostTiles = new BufferedImage[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            tiles[i] = renderTile(colors[i], size);
+            ghostTiles[i] = renderGhostTile(colors[i], size);
+        }
+    }
+
+    /**
+     * Sprites do tema no tamanho pedido (criados na primeira chamada).
+     * Sincronizado porque a renderização ativa também o usa, na thread do game loop.
+     */
+    static synchronized TileSprites forTheme(Theme theme, int size) {
+        return CACHE.computeIfAbsent(theme.name() + '@' + size, k -> new TileSprites(theme, size));
+    }
+
+    BufferedImage tile(Shape.Tetrominoe shape) {
+        return tiles[shape.ordinal()];
+    }
+
+    BufferedImage ghostTile(Shape.Tetrominoe shape) {
+        return ghostTiles[shape.ordinal()];
+    }
+
+    // Mesmo desenho do antigo BoardPanel.drawSquare: preenchimento, luz em cima/esquerda e sombra embaixo/direita
+    private static BufferedImage renderTile(Color color, int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(1, 1, size - 2, size - 2);
+
+        g.setColor(color.brighter());
+        g.drawLine(0, size - 1, 0, 0);
+        g.drawLine(0, 0, size - 1, 0);
+
+        g.setColor(color.darker());
+        g.drawLine(1, size - 1, size - 1, size - 1);
+        g.drawLine(size - 1, size - 1, size - 1, 1);
+        g.dispose();
+        return image;
+    }
+
+    // Peça fantasma: apenas o contorno, com fundo transparente
+    private static BufferedImage renderGhostTile(Color color, int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color.darker());
+        g.drawRect(1, 1, size - 2, size - 2);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Cria uma imagem compatível com a tela (mais rápida de desenhar), ou uma BufferedImage comum
+     * se o componente ainda não estiver exibido.
+     */
+    static BufferedImage createLayer(Component component, int width, int height, boolean translucent) {
+        GraphicsConfiguration gc = component.getGraphicsConfiguration();
+        if (gc != null) {
+            return gc.createCompatibleImage(width, height, translucent ? Transparency.TRANSLUCENT : Transparency.OPAQUE);
+        }
+        return new BufferedImage(width, height, translucent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+    }
+}